@@ -0,0 +1,131 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.MoviesApiApplication;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.repositories.ActorRepository;
+import com.example.movies_api.services.MovieImportService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Boots the application against a synthetic SQLite catalog. The catalog for a given
+ * scale is generated once into target/jmh and copied to a temporary file for every
+ * trial, so benchmarks that write never affect each other or the checked-in database.
+ *
+ * Every movie gets two of {@link #GENRES} genres and three actors, with one actor per
+ * {@link #MOVIES_PER_ACTOR} movies; titles are three words from {@link #TITLE_WORDS}.
+ */
+final class BenchmarkCatalog {
+
+    static final int GENRES = 20;
+    static final int MOVIES_PER_ACTOR = 5;
+    static final String[] TITLE_WORDS = {
+            "matrix", "reloaded", "return", "king", "night", "space", "beyond", "river", "storm", "shadow",
+            "empire", "garden", "silent", "city", "dragon", "winter", "summer", "lost", "golden", "last",
+            "journey", "secret", "island", "fire", "ocean", "star", "dark", "road", "home", "legend"
+    };
+
+    private static final Path CATALOG_DIR = Paths.get("target", "jmh");
+
+    private BenchmarkCatalog() {
+    }
+
+    static int actors(int movies) {
+        return Math.max(movies / MOVIES_PER_ACTOR, 3);
+    }
+
+    static ConfigurableApplicationContext start(int movies) {
+        return start(movies, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext start(int movies, WebApplicationType type, String... args) {
+        try {
+            Path template = CATALOG_DIR.resolve("catalog-" + movies + ".db");
+            if (!Files.exists(template)) {
+                seed(template, movies);
+            }
+            Path database = Files.createTempFile("movies-jmh-", ".db");
+            Files.copy(template, database, StandardCopyOption.REPLACE_EXISTING);
+            database.toFile().deleteOnExit();
+            return boot(database, type, args);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void seed(Path template, int movies) throws IOException {
+        Files.createDirectories(CATALOG_DIR);
+        Path database = CATALOG_DIR.resolve("catalog-" + movies + ".db.tmp");
+        Files.deleteIfExists(database);
+
+        try (ConfigurableApplicationContext context = boot(database, WebApplicationType.NONE)) {
+            int actorCount = actors(movies);
+            List<Actor> actors = new ArrayList<>(actorCount);
+            for (int i = 1; i <= actorCount; i++) {
+                actors.add(new Actor(actorName(i), LocalDate.of(1940 + i % 60, 1 + i % 12, 1 + i % 28)));
+            }
+            context.getBean(ActorRepository.class).saveAll(actors);
+
+            context.getBean(MovieImportService.class)
+                    .importNdjson(new ByteArrayInputStream(ndjson(movies, actorCount, 42)));
+        }
+        Files.move(database, template, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Import rows for the given number of movies in the shape described above, referencing
+    // actors 1 to actorCount by name.
+    static byte[] ndjson(int movies, int actorCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder ndjson = new StringBuilder(movies * 120);
+        for (int i = 1; i <= movies; i++) {
+            int genre = random.nextInt(GENRES);
+            ndjson.append("{\"title\":\"")
+                    .append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]).append(' ')
+                    .append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]).append(' ')
+                    .append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]).append(' ').append(i)
+                    .append("\",\"releaseYear\":").append(1950 + random.nextInt(75))
+                    .append(",\"duration\":").append(80 + random.nextInt(100))
+                    .append(",\"genres\":[\"").append(genreName(genre)).append("\",\"")
+                    .append(genreName((genre + 1 + random.nextInt(GENRES - 1)) % GENRES))
+                    .append("\"],\"actors\":[\"").append(actorName(1 + random.nextInt(actorCount)))
+                    .append("\",\"").append(actorName(1 + random.nextInt(actorCount)))
+                    .append("\",\"").append(actorName(1 + random.nextInt(actorCount)))
+                    .append("\"]}\n");
+        }
+        return ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ConfigurableApplicationContext boot(Path database, WebApplicationType type, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:sqlite:" + database.toAbsolutePath(),
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(MoviesApiApplication.class)
+                .web(type)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    static String genreName(int index) {
+        return String.format("Genre %02d", index + 1);
+    }
+
+    static String actorName(int index) {
+        return String.format("Actor %06d", index);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.repositories.MovieRepository;
+import com.example.movies_api.services.ActorService;
+import com.example.movies_api.services.CatalogReplica;
+import com.example.movies_api.services.GenreService;
+import com.example.movies_api.services.MovieService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * A running application context over a seeded catalog of {@code movies} movies,
+ * shared by all threads of a trial.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    @Param({"10000"})
+    public int movies;
+
+    // Serve reads from the in-memory catalog snapshot: -p inMemory=true.
+    @Param({"false"})
+    public boolean inMemory;
+
+    ConfigurableApplicationContext context;
+    MovieService movieService;
+    MovieRepository movieRepository;
+    GenreService genreService;
+    ActorService actorService;
+    ObjectMapper objectMapper;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void start() throws InterruptedException {
+        context = BenchmarkCatalog.start(movies, WebApplicationType.NONE, "--movies.catalog.in-memory=" + inMemory);
+        CatalogReplica replica = context.getBean(CatalogReplica.class);
+        while (inMemory && replica.snapshot() == null) {
+            Thread.sleep(100);
+        }
+        movieService = context.getBean(MovieService.class);
+        movieRepository = context.getBean(MovieRepository.class);
+        genreService = context.getBean(GenreService.class);
+        actorService = context.getBean(ActorService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    int actors() {
+        return BenchmarkCatalog.actors(movies);
+    }
+
+    // Runs the query and serializes its result inside one session, the way a request
+    // does with open-in-view, so lazy associations are loaded as part of the measurement.
+    byte[] render(Supplier<?> query) {
+        return readOnlyTransaction.execute(status -> {
+            try {
+                return objectMapper.writeValueAsBytes(query.get());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
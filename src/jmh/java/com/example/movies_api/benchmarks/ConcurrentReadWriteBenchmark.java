@@ -0,0 +1,72 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.entities.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput of the paged movie listing while movies are being created. Each
+ * group runs reader threads against the reader pool next to one writer thread on the
+ * single writer connection. Run the groups separately to vary the reader count, e.g.
+ * {@code ConcurrentReadWriteBenchmark.readsWhileWriting -tg 8,1} next to
+ * {@code ConcurrentReadWriteBenchmark.readsOnly -tg 8}, to see both how
+ * reads scale with cores and what in-flight writes cost them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ConcurrentReadWriteBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final List<Long> GENRE_IDS = List.of(1L, 2L);
+    private static final List<Long> ACTOR_IDS = List.of(1L, 2L, 3L);
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int page;
+        int created;
+    }
+
+    @Benchmark
+    @Group("readsWhileWriting")
+    @GroupThreads(4)
+    public byte[] read(CatalogState catalog, Cursor cursor) {
+        return readPage(catalog, cursor);
+    }
+
+    @Benchmark
+    @Group("readsWhileWriting")
+    @GroupThreads(1)
+    public Movie write(CatalogState catalog, Cursor cursor) {
+        return catalog.movieService.createMovie(new Movie("Concurrent movie " + cursor.created++, 2010, 95),
+                GENRE_IDS, ACTOR_IDS);
+    }
+
+    @Benchmark
+    @Group("readsOnly")
+    @GroupThreads(4)
+    public byte[] readAlone(CatalogState catalog, Cursor cursor) {
+        return readPage(catalog, cursor);
+    }
+
+    private static byte[] readPage(CatalogState catalog, Cursor cursor) {
+        int pages = Math.max(1, catalog.movies / PAGE_SIZE);
+        PageRequest pageable = PageRequest.of(cursor.page++ % pages, PAGE_SIZE);
+        return catalog.render(() -> catalog.movieService.getAllMovies(pageable).getContent());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.dto.BulkImportResultDTO;
+import com.example.movies_api.services.MovieImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import of {@link #ROWS} NDJSON movies, each with two genres and three existing
+ * actors, reported in movies per second. An invocation takes longer than the one-second
+ * iterations, so every iteration is a single import; the catalog keeps the rows of earlier
+ * iterations and grows by {@link #ROWS} movies each time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportBenchmark {
+
+    static final int ROWS = 200_000;
+
+    @State(Scope.Thread)
+    public static class Rows {
+
+        MovieImportService importService;
+        byte[] ndjson;
+
+        @Setup(Level.Trial)
+        public void generate(CatalogState catalog) {
+            importService = catalog.context.getBean(MovieImportService.class);
+            ndjson = BenchmarkCatalog.ndjson(ROWS, catalog.actors(), 7);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public BulkImportResultDTO importNdjson(Rows rows) throws IOException {
+        BulkImportResultDTO result = rows.importService.importNdjson(new ByteArrayInputStream(rows.ndjson));
+        if (result.getImported() != ROWS) {
+            throw new IllegalStateException("Imported " + result.getImported() + " of " + ROWS + " rows");
+        }
+        return result;
+    }
+}
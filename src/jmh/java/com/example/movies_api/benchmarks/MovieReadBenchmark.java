@@ -0,0 +1,102 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.entities.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paged listings and title search as served by GET /api/movies and /api/movies/search:
+ * the service call plus JSON rendering of the page content. Pages, genres, actors and
+ * search terms rotate between invocations so results are not served from one hot page.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieReadBenchmark {
+
+    private static final int PAGES = 50;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private int invocation;
+
+    @Benchmark
+    public byte[] getAllMovies(CatalogState catalog) {
+        Pageable pageable = nextPage(catalog);
+        return catalog.render(() -> content(catalog.movieService.getAllMovies(pageable)));
+    }
+
+    // view=summary: the same pages as getAllMovies, read with a constructor expression instead of entities.
+    @Benchmark
+    public byte[] getAllMovieSummaries(CatalogState catalog) {
+        Pageable pageable = nextPage(catalog);
+        return catalog.render(() -> catalog.movieService.getMovieSummaries(PageCursor.first(false), pageable).getContent());
+    }
+
+    @Benchmark
+    public byte[] getMoviesByGenre(CatalogState catalog) {
+        long genreId = 1 + invocation % BenchmarkCatalog.GENRES;
+        Pageable pageable = nextPage(catalog);
+        return catalog.render(() -> catalog.movieService.getMoviesByGenre(genreId, pageable)
+                .map(MovieReadBenchmark::content).orElse(List.of()));
+    }
+
+    @Benchmark
+    public byte[] getMoviesByActor(CatalogState catalog) {
+        long actorId = 1 + (invocation * 7919L) % catalog.actors();
+        Pageable pageable = PageRequest.of(0, pageSize);
+        invocation++;
+        return catalog.render(() -> catalog.movieService.getMoviesByActor(actorId, pageable)
+                .map(MovieReadBenchmark::content).orElse(List.of()));
+    }
+
+    @Benchmark
+    public byte[] searchMoviesByTitle(CatalogState catalog) {
+        String title = searchTerm();
+        Pageable pageable = PageRequest.of(0, pageSize);
+        return catalog.render(() -> catalog.movieService.searchMoviesByTitle(title, pageable)
+                .map(MovieReadBenchmark::content).orElse(List.of()));
+    }
+
+    // The LIKE scan that title search used before the full-text index, kept as a baseline.
+    @Benchmark
+    public byte[] searchMoviesByTitleLike(CatalogState catalog) {
+        String title = searchTerm();
+        Pageable pageable = PageRequest.of(0, pageSize);
+        return catalog.render(() -> content(catalog.movieRepository.findByTitleContainingIgnoreCase(title, pageable)));
+    }
+
+    private Pageable nextPage(CatalogState catalog) {
+        int pages = Math.max(1, Math.min(PAGES, catalog.movies / pageSize));
+        return PageRequest.of(invocation++ % pages, pageSize);
+    }
+
+    private String searchTerm() {
+        String[] words = BenchmarkCatalog.TITLE_WORDS;
+        int index = invocation++;
+        return words[index % words.length] + " " + words[(index / words.length) % words.length].substring(0, 3);
+    }
+
+    private static List<Movie> content(Page<Movie> page) {
+        return page.getContent();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.entities.Movie;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a page of movies on its own: the page and its associations
+ * are loaded once during setup, so only the object mapper is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovieSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int pageSize;
+
+    private List<Movie> page;
+
+    @Setup(Level.Trial)
+    public void loadPage(CatalogState catalog) {
+        page = catalog.readOnlyTransaction.execute(status -> {
+            List<Movie> movies = catalog.movieService.getAllMovies(PageRequest.of(0, pageSize)).getContent();
+            movies.forEach(movie -> {
+                movie.getGenres().size();
+                movie.getActors().size();
+            });
+            return movies;
+        });
+    }
+
+    @Benchmark
+    public byte[] serializePage(CatalogState catalog) throws JsonProcessingException {
+        return catalog.objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.dto.MovieUpdateDTO;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.repositories.ActorRepository;
+import com.example.movies_api.repositories.GenreRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Movie creation, updates and the force-delete paths. Every delete removes a fixture that is
+ * created, outside the measurement, right before the invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieWriteBenchmark {
+
+    @State(Scope.Thread)
+    public static class NewMovie {
+
+        // Split between genres (up to the number of genres in the catalog) and actors.
+        @Param({"0", "8", "40"})
+        public int associations;
+
+        List<Long> genreIds;
+        List<Long> actorIds;
+        private int created;
+
+        @Setup(Level.Trial)
+        public void pickAssociations(CatalogState catalog) {
+            int genres = Math.min(associations / 2, BenchmarkCatalog.GENRES);
+            genreIds = ids(1, genres);
+            actorIds = ids(1, Math.min(associations - genres, catalog.actors()));
+        }
+
+        Movie next() {
+            return new Movie("Benchmark movie " + created++, 2000, 100);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class UpdatedMovie {
+
+        // Split like NewMovie's; every update swaps the cast for a disjoint one of the same size.
+        @Param({"0", "8", "40"})
+        public int associations;
+
+        long movieId;
+        List<String> genreNames;
+        List<List<String>> casts;
+        private int updates;
+
+        @Setup(Level.Trial)
+        public void createMovie(CatalogState catalog) {
+            int genres = Math.min(associations / 2, BenchmarkCatalog.GENRES);
+            int actors = Math.min(associations - genres, catalog.actors() / 2);
+            genreNames = new ArrayList<>(genres);
+            for (int i = 0; i < genres; i++) {
+                genreNames.add(BenchmarkCatalog.genreName(i));
+            }
+            casts = List.of(actorNames(1, actors), actorNames(1 + actors, actors));
+            movieId = catalog.movieService.createMovie(new Movie("Updated movie", 2000, 100), ids(1, genres),
+                    ids(1, actors)).getId();
+        }
+
+        MovieUpdateDTO next() {
+            MovieUpdateDTO update = new MovieUpdateDTO();
+            update.setTitle("Updated movie " + updates);
+            update.setReleaseYear(2000 + updates % 20);
+            update.setDuration(100);
+            update.setGenreNames(genreNames);
+            update.setActorNames(casts.get(++updates % 2));
+            return update;
+        }
+
+        private static List<String> actorNames(int first, int count) {
+            List<String> names = new ArrayList<>(count);
+            for (int i = first; i < first + count; i++) {
+                names.add(BenchmarkCatalog.actorName(i));
+            }
+            return names;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MovieFixture {
+
+        long movieId;
+
+        @Setup(Level.Invocation)
+        public void createMovie(CatalogState catalog) {
+            Movie movie = catalog.movieService.createMovie(new Movie("Fixture movie", 2000, 100), ids(1, 3), ids(1, 5));
+            movieId = movie.getId();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class GenreFixture {
+
+        @Param({"100", "1000"})
+        public int linkedMovies;
+
+        long genreId;
+
+        @Setup(Level.Invocation)
+        public void createGenre(CatalogState catalog) {
+            Genre genre = catalog.context.getBean(GenreRepository.class).save(new Genre("Fixture genre"));
+            genreId = genre.getId();
+            catalog.jdbcTemplate.update("INSERT INTO movie_genre (movie_id, genre_id) SELECT id, ? FROM movie LIMIT ?",
+                    genreId, linkedMovies);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ActorFixture {
+
+        @Param({"100", "1000"})
+        public int linkedMovies;
+
+        long actorId;
+
+        @Setup(Level.Invocation)
+        public void createActor(CatalogState catalog) {
+            Actor actor = catalog.context.getBean(ActorRepository.class)
+                    .save(new Actor("Fixture actor", LocalDate.of(1970, 1, 1)));
+            actorId = actor.getId();
+            catalog.jdbcTemplate.update("INSERT INTO movie_actor (movie_id, actor_id) SELECT id, ? FROM movie LIMIT ?",
+                    actorId, linkedMovies);
+        }
+    }
+
+    @Benchmark
+    public Movie createMovie(CatalogState catalog, NewMovie movie) {
+        return catalog.movieService.createMovie(movie.next(), movie.genreIds, movie.actorIds);
+    }
+
+    @Benchmark
+    public Movie updateMovie(CatalogState catalog, UpdatedMovie movie) {
+        return catalog.movieService.updateMovie(movie.movieId, movie.next()).orElseThrow();
+    }
+
+    @Benchmark
+    public void forceDeleteMovie(CatalogState catalog, MovieFixture fixture) {
+        catalog.movieService.deleteMovie(fixture.movieId, true);
+    }
+
+    @Benchmark
+    public void forceDeleteGenre(CatalogState catalog, GenreFixture fixture) {
+        catalog.genreService.deleteGenre(fixture.genreId, true);
+    }
+
+    @Benchmark
+    public void forceDeleteActor(CatalogState catalog, ActorFixture fixture) {
+        catalog.actorService.deleteActor(fixture.actorId, true);
+    }
+
+    private static List<Long> ids(long first, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (long id = first; id < first + count; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.dto.PageCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same reads through the blocking /api/movies endpoints and the reactive /api/v2/movies
+ * ones, over HTTP from many concurrent clients: cursor pages of 20 movies and single movies
+ * by id. {@code serverThreads} caps Tomcat's request threads, which the blocking endpoints
+ * hold for the whole request and the reactive ones only until the read is queued.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(1200)
+@Fork(1)
+public class ReactiveLoadBenchmark {
+
+    private static final int PAGES = 50;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000"})
+    public int movies;
+
+    @Param({"v1", "v2"})
+    public String api;
+
+    @Param({"200", "16"})
+    public int serverThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String[] cursors;
+
+    @State(Scope.Thread)
+    public static class Client {
+        int request;
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkCatalog.start(movies, WebApplicationType.SERVLET,
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + serverThreads);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + ("v2".equals(api) ? "/api/v2/movies" : "/api/movies");
+        cursors = new String[PAGES];
+        for (int page = 0; page < PAGES; page++) {
+            cursors[page] = PageCursor.afterId((long) page * PAGE_SIZE).encode();
+        }
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int pageOfMovies(Client state) throws IOException, InterruptedException {
+        return get(baseUrl + "?size=" + PAGE_SIZE + "&after=" + cursors[state.request++ % PAGES]);
+    }
+
+    @Benchmark
+    public int movieById(Client state) throws IOException, InterruptedException {
+        return get(baseUrl + "/" + (1 + state.request++ % movies));
+    }
+
+    private int get(String url) throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + uri + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
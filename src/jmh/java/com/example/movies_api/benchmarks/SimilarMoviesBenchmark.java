@@ -0,0 +1,57 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.dto.SimilarMovieDTO;
+import com.example.movies_api.services.SimilarityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/movies/{id}/similar: the index lookup alone and the full service call, which
+ * adds the summary query for the returned movies. Movie ids rotate over the catalog.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimilarMoviesBenchmark {
+
+    private SimilarityIndex index;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void awaitIndex(CatalogState catalog) throws InterruptedException {
+        index = catalog.context.getBean(SimilarityIndex.class);
+        while (!index.isReady()) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Benchmark
+    public Optional<List<SimilarityIndex.Match>> similarFromIndex(CatalogState catalog) {
+        return index.similar(nextMovie(catalog), 10);
+    }
+
+    @Benchmark
+    public List<SimilarMovieDTO> getSimilarMovies(CatalogState catalog) {
+        return catalog.movieService.getSimilarMovies(nextMovie(catalog), 10).orElseThrow();
+    }
+
+    private long nextMovie(CatalogState catalog) {
+        return 1 + (invocation++ * 7919L) % catalog.movies;
+    }
+}
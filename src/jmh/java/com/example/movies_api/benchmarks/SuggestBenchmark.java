@@ -0,0 +1,52 @@
+package com.example.movies_api.benchmarks;
+
+import com.example.movies_api.dto.SuggestionDTO;
+import com.example.movies_api.services.SuggestionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/suggest: top-10 lookups over titles and actor names, sampled so the report
+ * includes tail percentiles. Prefixes rotate from a single letter, which matches a large
+ * share of the generated titles, to the prefix of a single actor name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestBenchmark {
+
+    private static final String[] PREFIXES = {
+            "s", "ma", "dra", "gold", "night", "the", "r", "actor", "actor 00", "actor 0012", "winter g", "zz"
+    };
+
+    private SuggestionIndex index;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void awaitIndex(CatalogState catalog) throws InterruptedException {
+        index = catalog.context.getBean(SuggestionIndex.class);
+        while (!index.isReady()) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> suggest() {
+        return index.suggest(PREFIXES[invocation++ % PREFIXES.length], 10, true, true);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.movies_api.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Genre and actor lookups are cached by id and by name; cache sizes, TTL and
+ * statistics are configured through {@code spring.cache.*} in application.properties.
+ * The cache advice runs outside the transaction advice, so evictions happen after commit.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String GENRES_BY_ID = "genresById";
+    public static final String GENRES_BY_NAME = "genresByName";
+    public static final String ACTORS_BY_ID = "actorsById";
+    public static final String ACTORS_BY_NAME = "actorsByName";
+}
@@ -0,0 +1,23 @@
+package com.example.movies_api.config;
+
+import com.example.movies_api.services.CatalogChangeTracker;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response only changes when one of the given tables does.
+ * Its ETag is derived from the tables' change counters, and a matching If-None-Match
+ * is answered with 304 before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    CatalogChangeTracker.Table[] value();
+
+    /** Cache-Control header value; may be a ${...} property placeholder. */
+    String cacheControl();
+}
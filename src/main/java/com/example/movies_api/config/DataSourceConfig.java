@@ -0,0 +1,78 @@
+package com.example.movies_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * SQLite in WAL mode behind two connection pools. Read-write transactions run on a
+ * single writer connection, so writers queue in the pool instead of failing with
+ * SQLITE_BUSY; read-only transactions and reads outside a transaction (lazy loading
+ * during serialization) use the reader pool and proceed while a write is in flight.
+ *
+ * The routing decision is made when the first statement runs rather than when Hibernate
+ * asks for a connection, because the transaction's read-only flag is only known by then.
+ * Flyway migrates through the writer pool.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    static final String WRITER = "writer";
+    static final String READER = "reader";
+
+    // WAL lets readers run alongside the writer; with synchronous=NORMAL a commit no longer
+    // waits for fsync (only checkpoints do), which is what batching commits would have bought.
+    private static final Map<String, String> PRAGMAS = Map.of(
+            "journal_mode", "WAL",
+            "synchronous", "NORMAL",
+            "busy_timeout", "10000");
+
+    @Bean
+    @FlywayDataSource
+    public HikariDataSource writerDataSource(DataSourceProperties properties) {
+        return pool(properties, WRITER, 1);
+    }
+
+    @Bean
+    public HikariDataSource readerDataSource(DataSourceProperties properties,
+                                             @Value("${movies.datasource.reader-pool-size:0}") int poolSize) {
+        return pool(properties, READER, poolSize > 0 ? poolSize : Math.max(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writerDataSource") DataSource writer,
+                                 @Qualifier("readerDataSource") DataSource reader) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                boolean writing = TransactionSynchronizationManager.isActualTransactionActive()
+                        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+                return writing ? WRITER : READER;
+            }
+        };
+        routing.setTargetDataSources(Map.of(WRITER, writer, READER, reader));
+        routing.setDefaultTargetDataSource(reader);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name, int size) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(size);
+        PRAGMAS.forEach(dataSource::addDataSourceProperty);
+        return dataSource;
+    }
+}
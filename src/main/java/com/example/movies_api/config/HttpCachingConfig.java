@@ -0,0 +1,72 @@
+package com.example.movies_api.config;
+
+import com.example.movies_api.services.CatalogChangeTracker;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Answers conditional GETs on {@link ConditionalGet} handlers from the in-memory change
+ * counters, so a client or CDN revalidating an unchanged listing costs neither a query
+ * nor serialization.
+ */
+@Configuration
+public class HttpCachingConfig implements WebMvcConfigurer {
+
+    private final CatalogChangeTracker changeTracker;
+    private final Environment environment;
+
+    @Autowired
+    public HttpCachingConfig(CatalogChangeTracker changeTracker, Environment environment) {
+        this.changeTracker = changeTracker;
+        this.environment = environment;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor()).addPathPatterns("/api/**");
+    }
+
+    private class ConditionalGetInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // The async dispatch of a streamed listing is already being answered.
+            if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() == DispatcherType.ASYNC) {
+                return true;
+            }
+            ConditionalGet conditional = method.getMethodAnnotation(ConditionalGet.class);
+            if (conditional == null) {
+                return true;
+            }
+
+            String cacheControl = environment.resolvePlaceholders(conditional.cacheControl());
+            if (StringUtils.hasText(cacheControl)) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+            String tables = Arrays.stream(conditional.value())
+                    .map(table -> table.name().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.joining("."));
+            // JSON and NDJSON renderings of a listing carry different ETags, so caches must key on Accept.
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            String accept = request.getHeader(HttpHeaders.ACCEPT);
+            String etag = tables + "-" + changeTracker.version(conditional.value())
+                    + (accept != null && accept.contains("ndjson") ? "-ndjson" : "");
+            return !new ServletWebRequest(request, response).checkNotModified(etag);
+        }
+    }
+}
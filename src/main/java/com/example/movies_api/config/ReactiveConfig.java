@@ -0,0 +1,25 @@
+package com.example.movies_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The scheduler the /api/v2 endpoints run their blocking reads on. It has one thread per
+ * reader connection, so no more reads are in flight than the pool can serve, and a bounded
+ * queue behind it; once the queue is full new requests are turned away with 503 instead of
+ * piling up.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler catalogScheduler(@Qualifier("readerDataSource") HikariDataSource readers,
+                                      @Value("${movies.reactive.queue-capacity}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(readers.getMaximumPoolSize(), queueCapacity, "catalog-io");
+    }
+}
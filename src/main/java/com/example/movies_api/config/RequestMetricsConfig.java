@@ -0,0 +1,81 @@
+package com.example.movies_api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per API request, how many SQL statements Hibernate executed and how long
+ * they took, tagged like {@code http.server.requests} so the three can be lined up per
+ * endpoint. Latency histograms, Hibernate statistics and Hikari pool metrics come from
+ * Spring Boot's own instrumentation and are all scraped from /actuator/prometheus.
+ */
+@Configuration
+public class RequestMetricsConfig implements WebMvcConfigurer {
+
+    static final String SQL_STATEMENTS = "http.server.requests.sql.statements";
+    static final String JDBC_TIME = "http.server.requests.jdbc";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RequestMetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlMetricsInterceptor()).addPathPatterns("/api/**");
+    }
+
+    private class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            SqlStatementListener.start();
+            return true;
+        }
+
+        // Streaming responses finish on another thread; only the dispatch that completes the request is recorded.
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                   Object handler) {
+            SqlStatementListener.stop();
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                    Exception ex) {
+            SqlStatementListener.Totals totals = SqlStatementListener.stop();
+            if (totals == null) {
+                return;
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of(
+                    "method", request.getMethod(),
+                    "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                    "status", Integer.toString(response.getStatus()));
+            DistributionSummary.builder(SQL_STATEMENTS)
+                    .description("SQL statements executed by Hibernate per request")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(totals.statements());
+            Timer.builder(JDBC_TIME)
+                    .description("Time spent executing SQL statements per request")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(totals.jdbcNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
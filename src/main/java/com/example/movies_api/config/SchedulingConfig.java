@@ -0,0 +1,13 @@
+package com.example.movies_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs background maintenance such as the periodic statistics checkpoint; intervals are
+ * configured under {@code movies.*} in application.properties.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,62 @@
+package com.example.movies_api.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts the JDBC statements Hibernate executes and the time spent executing them,
+ * attributed to the current thread between {@link #start()} and {@link #stop()}.
+ * Registered for every session through {@code hibernate.session.events.auto};
+ * statements issued outside a started thread (startup, streaming threads) are ignored.
+ */
+public class SqlStatementListener implements SessionEventListener {
+
+    private static final ThreadLocal<Totals> CURRENT = new ThreadLocal<>();
+
+    private long executeStart;
+
+    static void start() {
+        CURRENT.set(new Totals());
+    }
+
+    static Totals stop() {
+        Totals totals = CURRENT.get();
+        CURRENT.remove();
+        return totals;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        Totals totals = CURRENT.get();
+        if (totals != null) {
+            totals.statements++;
+            totals.jdbcNanos += System.nanoTime() - executeStart;
+        }
+    }
+
+    static final class Totals {
+        private int statements;
+        private long jdbcNanos;
+
+        int statements() { return statements; }
+        long jdbcNanos() { return jdbcNanos; }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.movies_api.config;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adds the optimistic-locking version columns behind the ETags. Databases that ran with
+ * {@code ddl-auto=update} may already have them, and SQLite has no ADD COLUMN IF NOT EXISTS,
+ * so each column is only added when table_info does not list it.
+ */
+@Component
+public class V2__AddVersionColumns extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        for (String table : List.of("movie", "genre", "actor")) {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pragma_table_info(?) WHERE name = 'version'", Integer.class, table);
+            if (existing == null || existing == 0) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN version integer not null default 0");
+            }
+        }
+    }
+}
@@ -1,18 +1,33 @@
 package com.example.movies_api.controllers;
 
+import com.example.movies_api.config.ConditionalGet;
+import com.example.movies_api.dto.BatchGetResultDTO;
+import com.example.movies_api.dto.DeltaSyncDTO;
+import com.example.movies_api.dto.CollaborationStepDTO;
+import com.example.movies_api.dto.CostarDTO;
+import com.example.movies_api.dto.PageCursor;
 import com.example.movies_api.entities.Actor;
 import com.example.movies_api.entities.Movie;
 import com.example.movies_api.exceptions.InvalidPaginationException;
+import com.example.movies_api.exceptions.InvalidQueryException;
 import com.example.movies_api.exceptions.ResourceNotFoundException;
 import com.example.movies_api.services.ActorService;
+import com.example.movies_api.services.CatalogChangeTracker;
+import com.example.movies_api.services.ChangeFeed;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,10 +37,17 @@ import java.util.Optional;
 public class ActorController {
 
     private final ActorService actorService;
+    private final ChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final String cacheControl;
 
     @Autowired
-    public ActorController(ActorService actorService) {
+    public ActorController(ActorService actorService, ChangeFeed changeFeed, ObjectMapper objectMapper,
+                           @Value("${movies.http.cache-control.actors}") String cacheControl) {
         this.actorService = actorService;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.cacheControl = cacheControl;
     }
 
     @PostMapping
@@ -35,11 +57,21 @@ public class ActorController {
     }
 
     @GetMapping
+    @ConditionalGet(value = CatalogChangeTracker.Table.ACTOR, cacheControl = "${movies.http.cache-control.actors}")
     public ResponseEntity<List<Actor>> getAllActors(
             @RequestParam(required = false) String name,
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false) Integer size) {
-        
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after) {
+
+        if (after != null) {
+            long afterId = CursorPages.parse(after, false).getId();
+            Slice<Actor> actors = (name != null)
+                    ? actorService.getActorsByNameAfter(name, afterId, CursorPages.size(size))
+                    : actorService.getActorsAfter(afterId, CursorPages.size(size));
+            return CursorPages.toResponse(actors, actor -> PageCursor.afterId(actor.getId()));
+        }
+
         if (page < 0 || (size != null && size <= 0)) {
             throw new InvalidPaginationException("Invalid pagination parameters: page must be non-negative and size must be positive.");
         }
@@ -55,10 +87,41 @@ public class ActorController {
         }
     }
 
+    @GetMapping(params = "ids")
+    @ConditionalGet(value = CatalogChangeTracker.Table.ACTOR, cacheControl = "${movies.http.cache-control.actors}")
+    public ResponseEntity<BatchGetResultDTO<Actor>> getActorsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(BatchGets.result(BatchGets.ids(ids), actorService::getActorsByIds));
+    }
+
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResultDTO<Actor>> batchGetActors(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(BatchGets.result(BatchGets.ids(ids), actorService::getActorsByIds));
+    }
+
+    @GetMapping(params = {"modifiedSince", "!ids"})
+    @ConditionalGet(value = CatalogChangeTracker.Table.ACTOR, cacheControl = "${movies.http.cache-control.actors}")
+    public ResponseEntity<DeltaSyncDTO<Actor>> getActorsModifiedSince(
+            @RequestParam long modifiedSince,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        return DeltaSyncs.page(changeFeed, CatalogChangeTracker.Table.ACTOR, modifiedSince, after, size,
+                actorService::getActorsAfterUpdatedAt, actor -> PageCursor.afterUpdatedAt(actor.getUpdatedAt(), actor.getId()));
+    }
+
+    @GetMapping(params = {"!size", "!name", "!after", "!ids", "!modifiedSince"})
+    @ConditionalGet(value = CatalogChangeTracker.Table.ACTOR, cacheControl = "${movies.http.cache-control.actors}")
+    public ResponseEntity<StreamingResponseBody> streamAllActors(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return JsonStreams.stream(objectMapper, accept, actorService::streamAllActors);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Actor> getActorById(@PathVariable Long id) {
+    public ResponseEntity<Actor> getActorById(@PathVariable Long id, ServletWebRequest request) {
         Actor actor = actorService.getActorById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Actor with id " + id + " not found"));
+        if (HttpCaching.isNotModified(request, "actor-" + id + "-v" + actor.getVersion(), cacheControl)) {
+            return HttpCaching.notModified();
+        }
         return ResponseEntity.ok(actor);
     }
 
@@ -82,6 +145,8 @@ public class ActorController {
     }
 
     @GetMapping("/{actorId}/movies")
+    @ConditionalGet(value = {CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.ACTOR},
+                    cacheControl = "${movies.http.cache-control.movies}")
     public ResponseEntity<List<Movie>> getMoviesByActor(@PathVariable Long actorId, Pageable pageable) {
         if (pageable.getPageNumber() < 0 || pageable.getPageSize() <= 0) {
             throw new InvalidPaginationException("Invalid pagination parameters: page must be non-negative and size must be positive.");
@@ -90,4 +155,27 @@ public class ActorController {
         Page<Movie> movies = actorService.getMoviesByActor(actorId, pageable);
         return ResponseEntity.ok(movies.getContent());
     }
+
+    @GetMapping("/{id}/costars")
+    public ResponseEntity<List<CostarDTO>> getCostars(@PathVariable Long id,
+                                                      @RequestParam(required = false, defaultValue = "10") int limit) {
+        if (limit <= 0) {
+            throw new InvalidQueryException("limit must be positive");
+        }
+        return ResponseEntity.ok(actorService.getCostars(id, limit));
+    }
+
+    @GetMapping("/{id}/path/{otherId}")
+    public ResponseEntity<List<CollaborationStepDTO>> getCollaborationPath(
+            @PathVariable Long id,
+            @PathVariable Long otherId,
+            @RequestParam(required = false, defaultValue = "6") int maxMovies) {
+        if (maxMovies <= 0) {
+            throw new InvalidQueryException("maxMovies must be positive");
+        }
+        return actorService.getCollaborationPath(id, otherId, maxMovies)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No collaboration path from actor " + id + " to actor " + otherId + " within " + maxMovies + " movies"));
+    }
 }
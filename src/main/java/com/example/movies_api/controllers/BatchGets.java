@@ -0,0 +1,51 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.BatchGetResultDTO;
+import com.example.movies_api.exceptions.InvalidQueryException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Shared handling of the ids of multi-get requests ({@code GET ?ids=} and
+ * {@code POST /batch-get}).
+ */
+final class BatchGets {
+
+    // Well under SQLite's limit on bound parameters, which the IN query has to respect.
+    static final int MAX_IDS = 1000;
+
+    private BatchGets() {
+    }
+
+    // Drops repeated ids, keeping the first occurrence.
+    static Set<Long> ids(List<Long> ids) {
+        if (ids == null || ids.contains(null)) {
+            throw new InvalidQueryException("ids must not contain empty values.");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_IDS) {
+            throw new InvalidQueryException("At most " + MAX_IDS + " ids can be fetched at once.");
+        }
+        return distinct;
+    }
+
+    static <T> BatchGetResultDTO<T> result(Set<Long> ids, Function<Set<Long>, Map<Long, T>> lookup) {
+        Map<Long, T> found = lookup.apply(ids);
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchGetResultDTO<>(items, missing);
+    }
+}
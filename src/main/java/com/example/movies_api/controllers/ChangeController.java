@@ -0,0 +1,47 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.ChangeBatchDTO;
+import com.example.movies_api.exceptions.InvalidQueryException;
+import com.example.movies_api.services.ChangeFeed;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Incremental sync: consumers read the catalog's changes after the last sequence number they
+ * processed instead of re-reading the lists. With {@code wait}, an empty poll is held open
+ * until the next change commits (long polling).
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeController {
+
+    static final int MAX_LIMIT = 1000;
+    static final int MAX_WAIT_SECONDS = 60;
+
+    private final ChangeFeed changeFeed;
+
+    @Autowired
+    public ChangeController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping
+    public CompletableFuture<ChangeBatchDTO> getChanges(
+            @RequestParam(required = false, defaultValue = "0") long since,
+            @RequestParam(required = false, defaultValue = "100") int limit,
+            @RequestParam(required = false, defaultValue = "0") int wait) {
+        if (since < 0) {
+            throw new InvalidQueryException("since must not be negative");
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new InvalidQueryException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (wait < 0 || wait > MAX_WAIT_SECONDS) {
+            throw new InvalidQueryException("wait must be between 0 and " + MAX_WAIT_SECONDS + " seconds");
+        }
+        return changeFeed.pollChanges(since, limit, wait * 1000L);
+    }
+}
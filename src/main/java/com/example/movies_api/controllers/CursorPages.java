@@ -0,0 +1,51 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.exceptions.InvalidPaginationException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared handling of the {@code after} cursor parameter for list endpoints.
+ */
+final class CursorPages {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_SIZE = 20;
+
+    private CursorPages() {
+    }
+
+    // An empty "after" value starts a cursor listing from the beginning. A cursor must come from
+    // a listing in the same order: an id cursor cannot continue a release-year listing or the
+    // other way round, and positions in a modifiedSince listing are only valid there.
+    static PageCursor parse(String after, boolean byReleaseYear) {
+        if (after.isEmpty()) {
+            return PageCursor.first(byReleaseYear);
+        }
+        PageCursor cursor = PageCursor.decode(after);
+        if (cursor.isByUpdatedAt() || cursor.isByReleaseYear() != byReleaseYear) {
+            throw new InvalidPaginationException("Invalid pagination cursor: " + after);
+        }
+        return cursor;
+    }
+
+    static int size(Integer size) {
+        if (size != null && size <= 0) {
+            throw new InvalidPaginationException("Invalid pagination parameters: size must be positive.");
+        }
+        return size != null ? size : DEFAULT_SIZE;
+    }
+
+    static <T> ResponseEntity<List<T>> toResponse(Slice<T> slice, Function<T, PageCursor> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.hasNext()) {
+            List<T> content = slice.getContent();
+            response.header(NEXT_CURSOR_HEADER, cursorOf.apply(content.get(content.size() - 1)).encode());
+        }
+        return response.body(slice.getContent());
+    }
+}
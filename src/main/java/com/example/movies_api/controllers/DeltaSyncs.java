@@ -0,0 +1,65 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.DeltaSyncDTO;
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.exceptions.InvalidPaginationException;
+import com.example.movies_api.exceptions.InvalidQueryException;
+import com.example.movies_api.services.CatalogChangeTracker;
+import com.example.movies_api.services.ChangeFeed;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared handling of {@code modifiedSince} listings, which let a client that keeps a copy of a
+ * listing fetch only what changed since its last sync.
+ *
+ * Rows are paged in (updatedAt, id) order with the usual {@code after} cursor. A row updated
+ * while a client is paging is stamped later and so moves ahead of the cursor, where a later page
+ * picks it up. Deleted ids are only read for the last page, when the client has caught up.
+ */
+final class DeltaSyncs {
+
+    static final int DEFAULT_SIZE = 1000;
+
+    private DeltaSyncs() {
+    }
+
+    static <T> ResponseEntity<DeltaSyncDTO<T>> page(ChangeFeed changeFeed, CatalogChangeTracker.Table table,
+                                                    long modifiedSince, String after, Integer size,
+                                                    PageReader<T> reader, Function<T, PageCursor> cursorOf) {
+        if (modifiedSince < 0) {
+            throw new InvalidQueryException("modifiedSince must not be negative");
+        }
+        PageCursor cursor = PageCursor.afterUpdatedAt(modifiedSince, 0);
+        if (after != null && !after.isEmpty()) {
+            cursor = PageCursor.decode(after);
+            if (!cursor.isByUpdatedAt() || cursor.getUpdatedAt() < modifiedSince) {
+                throw new InvalidPaginationException("Invalid pagination cursor: " + after);
+            }
+        }
+        int limit = size != null ? CursorPages.size(size) : DEFAULT_SIZE;
+
+        // Read before the rows: whatever commits after this point is stamped at or after it, so
+        // the next sync from lastModified cannot miss it. Rows stamped exactly then are sent twice.
+        // Rows older than the change log are stamped 0 and must not be sent again, hence at least 1.
+        long lastModified = Math.max(Math.max(modifiedSince, 1), changeFeed.lastChangedAt());
+        Slice<T> slice = reader.read(cursor.getUpdatedAt(), cursor.getId(), limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        List<Long> deletedIds = List.of();
+        if (slice.hasNext()) {
+            List<T> content = slice.getContent();
+            response.header(CursorPages.NEXT_CURSOR_HEADER, cursorOf.apply(content.get(content.size() - 1)).encode());
+        } else {
+            deletedIds = changeFeed.getDeletedIds(table, modifiedSince);
+        }
+        return response.body(new DeltaSyncDTO<>(slice.getContent(), deletedIds, lastModified));
+    }
+
+    @FunctionalInterface
+    interface PageReader<T> {
+        Slice<T> read(long updatedAt, long afterId, int size);
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.movies_api.controllers;
 
+import com.example.movies_api.config.ConditionalGet;
+import com.example.movies_api.dto.BatchGetResultDTO;
+import com.example.movies_api.dto.DeltaSyncDTO;
+import com.example.movies_api.dto.PageCursor;
 import com.example.movies_api.entities.Genre;
 import com.example.movies_api.exceptions.InvalidPaginationException;
+import com.example.movies_api.services.CatalogChangeTracker;
+import com.example.movies_api.services.ChangeFeed;
 import com.example.movies_api.services.GenreService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,10 +33,17 @@ import java.util.Optional;
 public class GenreController {
 
     private final GenreService genreService;
+    private final ChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final String cacheControl;
 
     @Autowired
-    public GenreController(GenreService genreService) {
+    public GenreController(GenreService genreService, ChangeFeed changeFeed, ObjectMapper objectMapper,
+                           @Value("${movies.http.cache-control.genres}") String cacheControl) {
         this.genreService = genreService;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.cacheControl = cacheControl;
     }
 
     @PostMapping
@@ -34,10 +53,18 @@ public class GenreController {
     }
 
     @GetMapping
+    @ConditionalGet(value = CatalogChangeTracker.Table.GENRE, cacheControl = "${movies.http.cache-control.genres}")
     public ResponseEntity<List<Genre>> getAllGenres(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false) Integer size) {
-        
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after) {
+
+        if (after != null) {
+            long afterId = CursorPages.parse(after, false).getId();
+            Slice<Genre> genres = genreService.getGenresAfter(afterId, CursorPages.size(size));
+            return CursorPages.toResponse(genres, genre -> PageCursor.afterId(genre.getId()));
+        }
+
         if (page < 0 || (size != null && size <= 0)) {
             throw new InvalidPaginationException("Invalid pagination parameters: page must be non-negative and size must be positive.");
         }
@@ -48,9 +75,41 @@ public class GenreController {
         return ResponseEntity.ok(genres.getContent());
     }
 
+    @GetMapping(params = "ids")
+    @ConditionalGet(value = CatalogChangeTracker.Table.GENRE, cacheControl = "${movies.http.cache-control.genres}")
+    public ResponseEntity<BatchGetResultDTO<Genre>> getGenresByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(BatchGets.result(BatchGets.ids(ids), genreService::getGenresByIds));
+    }
+
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResultDTO<Genre>> batchGetGenres(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(BatchGets.result(BatchGets.ids(ids), genreService::getGenresByIds));
+    }
+
+    @GetMapping(params = {"modifiedSince", "!ids"})
+    @ConditionalGet(value = CatalogChangeTracker.Table.GENRE, cacheControl = "${movies.http.cache-control.genres}")
+    public ResponseEntity<DeltaSyncDTO<Genre>> getGenresModifiedSince(
+            @RequestParam long modifiedSince,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        return DeltaSyncs.page(changeFeed, CatalogChangeTracker.Table.GENRE, modifiedSince, after, size,
+                genreService::getGenresAfterUpdatedAt, genre -> PageCursor.afterUpdatedAt(genre.getUpdatedAt(), genre.getId()));
+    }
+
+    @GetMapping(params = {"!size", "!after", "!ids", "!modifiedSince"})
+    @ConditionalGet(value = CatalogChangeTracker.Table.GENRE, cacheControl = "${movies.http.cache-control.genres}")
+    public ResponseEntity<StreamingResponseBody> streamAllGenres(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return JsonStreams.stream(objectMapper, accept, genreService::streamAllGenres);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Genre> getGenreById(@PathVariable Long id) {
+    public ResponseEntity<Genre> getGenreById(@PathVariable Long id, ServletWebRequest request) {
         Optional<Genre> genre = genreService.getGenreById(id);
+        if (genre.isPresent()
+                && HttpCaching.isNotModified(request, "genre-" + id + "-v" + genre.get().getVersion(), cacheControl)) {
+            return HttpCaching.notModified();
+        }
         
         return genre.map(ResponseEntity::ok)
                     .orElseGet(() -> ResponseEntity.notFound().build());
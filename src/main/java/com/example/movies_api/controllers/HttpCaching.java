@@ -0,0 +1,31 @@
+package com.example.movies_api.controllers;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET for single resources, whose ETag comes from the entity version.
+ * Listings are handled before the handler runs, see {@code @ConditionalGet}.
+ */
+final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    // Sets Cache-Control and the ETag; true when the client's copy is current.
+    static boolean isNotModified(ServletWebRequest request, String etag, String cacheControl) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null && StringUtils.hasText(cacheControl)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        return request.checkNotModified(etag);
+    }
+
+    static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.movies_api.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes unpaged listings to the response as they are read, either as a single JSON
+ * array or, when the client accepts {@code application/x-ndjson}, one object per line.
+ */
+final class JsonStreams {
+
+    private JsonStreams() {
+    }
+
+    static boolean wantsNdjson(String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper, String accept,
+                                                            Consumer<Consumer<List<T>>> producer) {
+        boolean ndjson = wantsNdjson(accept);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = ndjson
+                    ? objectMapper.writer().withRootValueSeparator("\n").writeValues(out)
+                    : objectMapper.writer().writeValuesAsArray(out)) {
+                producer.accept(chunk -> {
+                    try {
+                        writer.writeAll(chunk);
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
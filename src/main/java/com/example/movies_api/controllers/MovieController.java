@@ -1,21 +1,43 @@
 package com.example.movies_api.controllers;
 
+import com.example.movies_api.config.ConditionalGet;
+import com.example.movies_api.dto.BatchGetResultDTO;
+import com.example.movies_api.dto.BulkImportResultDTO;
+import com.example.movies_api.dto.DeltaSyncDTO;
+import com.example.movies_api.dto.MovieQueryDTO;
+import com.example.movies_api.dto.MovieSummaryDTO;
 import com.example.movies_api.dto.MovieUpdateDTO;
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.dto.SimilarMovieDTO;
 import com.example.movies_api.entities.Actor;
 import com.example.movies_api.entities.Movie;
 import com.example.movies_api.exceptions.InvalidPaginationException;
+import com.example.movies_api.exceptions.InvalidQueryException;
 import com.example.movies_api.exceptions.ResourceNotFoundException;
+import com.example.movies_api.services.CatalogChangeTracker;
+import com.example.movies_api.services.ChangeFeed;
+import com.example.movies_api.services.MovieImportService;
+import com.example.movies_api.services.MovieQueryService;
 import com.example.movies_api.services.MovieService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -24,11 +46,28 @@ import java.util.Optional;
 @RequestMapping("/api/movies")
 public class MovieController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
     private final MovieService movieService;
+    private final MovieImportService movieImportService;
+    private final MovieQueryService movieQueryService;
+    private final ObjectMapper objectMapper;
+    private final CatalogChangeTracker changeTracker;
+    private final ChangeFeed changeFeed;
+    private final String cacheControl;
 
     @Autowired
-    public MovieController(MovieService movieService) {
+    public MovieController(MovieService movieService, MovieImportService movieImportService,
+                           MovieQueryService movieQueryService, ObjectMapper objectMapper,
+                           CatalogChangeTracker changeTracker, ChangeFeed changeFeed,
+                           @Value("${movies.http.cache-control.movies}") String cacheControl) {
         this.movieService = movieService;
+        this.movieImportService = movieImportService;
+        this.movieQueryService = movieQueryService;
+        this.objectMapper = objectMapper;
+        this.changeTracker = changeTracker;
+        this.changeFeed = changeFeed;
+        this.cacheControl = cacheControl;
     }
 
     @PostMapping
@@ -39,19 +78,42 @@ public class MovieController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdMovie);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<BulkImportResultDTO> importMovies(HttpServletRequest request) throws IOException {
+        boolean csv = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        BulkImportResultDTO result = csv
+                ? movieImportService.importCsv(request.getInputStream())
+                : movieImportService.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Movie>> getAllMovies(
+    @ConditionalGet(value = {CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.ACTOR},
+                    cacheControl = "${movies.http.cache-control.movies}")
+    public ResponseEntity<?> getAllMovies(
             @RequestParam(required = false) Long genre,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Long actor,
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view) {
+
+        boolean summary = isSummaryView(view);
+        if (after != null) {
+            return getMoviesByCursor(genre, year, actor, after, sort, CursorPages.size(size), summary);
+        }
 
         if (page < 0 || (size != null && size <= 0)) {
             throw new InvalidPaginationException("Invalid pagination parameters: page must be non-negative and size must be positive.");
         }
 
         Pageable pageable = (size != null) ? PageRequest.of(page, size) : Pageable.unpaged();
+        if (summary) {
+            return ResponseEntity.ok(getMovieSummaries(genre, year, actor, pageable).getContent());
+        }
+
         Page<Movie> moviePage;
 
         if (genre != null) {
@@ -70,13 +132,154 @@ public class MovieController {
         return ResponseEntity.ok(moviePage.getContent());
     }
 
+    // Summary rows are read in id order, so an offset page is a cursor page that starts after id 0.
+    private Slice<MovieSummaryDTO> getMovieSummaries(Long genre, Integer year, Long actor, Pageable pageable) {
+        if (genre != null) {
+            return movieService.getMovieSummariesByGenre(genre, 0, pageable).orElseThrow(() ->
+                new ResourceNotFoundException("No movies found for genre " + genre));
+        } else if (year != null) {
+            return movieService.getMovieSummariesByReleaseYear(year, 0, pageable).orElseThrow(() ->
+                new ResourceNotFoundException("No movies found for year " + year));
+        } else if (actor != null) {
+            return movieService.getMovieSummariesByActor(actor, 0, pageable).orElseThrow(() ->
+                new ResourceNotFoundException("No movies found for actor " + actor));
+        }
+        return movieService.getMovieSummaries(PageCursor.first(false), pageable);
+    }
+
+    private ResponseEntity<?> getMoviesByCursor(Long genre, Integer year, Long actor,
+                                                String after, String sort, int size, boolean summary) {
+        boolean filtered = genre != null || year != null || actor != null;
+        boolean byReleaseYear = "releaseYear".equals(sort);
+        if (sort != null && !byReleaseYear) {
+            throw new InvalidPaginationException("Invalid sort parameter: only releaseYear is supported.");
+        }
+        if (filtered && byReleaseYear) {
+            throw new InvalidPaginationException("Sorting by releaseYear is only supported without filters.");
+        }
+
+        PageCursor cursor = CursorPages.parse(after, byReleaseYear);
+
+        if (summary) {
+            Pageable limit = PageRequest.of(0, size);
+            Slice<MovieSummaryDTO> summaries;
+            if (genre != null) {
+                summaries = movieService.getMovieSummariesByGenre(genre, cursor.getId(), limit).orElseThrow(() ->
+                    new ResourceNotFoundException("No movies found for genre " + genre));
+            } else if (year != null) {
+                summaries = movieService.getMovieSummariesByReleaseYear(year, cursor.getId(), limit).orElseThrow(() ->
+                    new ResourceNotFoundException("No movies found for year " + year));
+            } else if (actor != null) {
+                summaries = movieService.getMovieSummariesByActor(actor, cursor.getId(), limit).orElseThrow(() ->
+                    new ResourceNotFoundException("No movies found for actor " + actor));
+            } else {
+                summaries = movieService.getMovieSummaries(cursor, limit);
+            }
+            return CursorPages.toResponse(summaries, movie -> cursor.isByReleaseYear()
+                    ? PageCursor.afterReleaseYear(movie.getReleaseYear(), movie.getId())
+                    : PageCursor.afterId(movie.getId()));
+        }
+
+        Slice<Movie> movies;
+        if (genre != null) {
+            movies = movieService.getMoviesByGenreAfter(genre, cursor.getId(), size).orElseThrow(() ->
+                new ResourceNotFoundException("No movies found for genre " + genre));
+        } else if (year != null) {
+            movies = movieService.getMoviesByReleaseYearAfter(year, cursor.getId(), size).orElseThrow(() ->
+                new ResourceNotFoundException("No movies found for year " + year));
+        } else if (actor != null) {
+            movies = movieService.getMoviesByActorAfter(actor, cursor.getId(), size).orElseThrow(() ->
+                new ResourceNotFoundException("No movies found for actor " + actor));
+        } else {
+            movies = movieService.getMoviesAfter(cursor, size);
+        }
+
+        return CursorPages.toResponse(movies, movie -> cursor.isByReleaseYear()
+                ? PageCursor.afterReleaseYear(movie.getReleaseYear(), movie.getId())
+                : PageCursor.afterId(movie.getId()));
+    }
+
+    @GetMapping(params = "ids")
+    @ConditionalGet(value = {CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.ACTOR},
+                    cacheControl = "${movies.http.cache-control.movies}")
+    public ResponseEntity<BatchGetResultDTO<Movie>> getMoviesByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(BatchGets.result(BatchGets.ids(ids), movieService::getMoviesByIds));
+    }
+
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResultDTO<Movie>> batchGetMovies(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(BatchGets.result(BatchGets.ids(ids), movieService::getMoviesByIds));
+    }
+
+    @GetMapping(params = {"modifiedSince", "!ids"})
+    @ConditionalGet(value = {CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.ACTOR},
+                    cacheControl = "${movies.http.cache-control.movies}")
+    public ResponseEntity<DeltaSyncDTO<Movie>> getMoviesModifiedSince(
+            @RequestParam long modifiedSince,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        return DeltaSyncs.page(changeFeed, CatalogChangeTracker.Table.MOVIE, modifiedSince, after, size,
+                movieService::getMoviesAfterUpdatedAt, movie -> PageCursor.afterUpdatedAt(movie.getUpdatedAt(), movie.getId()));
+    }
+
+    @GetMapping(params = {"!size", "!genre", "!year", "!actor", "!after", "!ids", "!modifiedSince"})
+    @ConditionalGet(value = {CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.ACTOR},
+                    cacheControl = "${movies.http.cache-control.movies}")
+    public ResponseEntity<StreamingResponseBody> streamAllMovies(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(required = false) String view) {
+        if (isSummaryView(view)) {
+            return JsonStreams.stream(objectMapper, accept, movieService::streamAllMovieSummaries);
+        }
+        return JsonStreams.stream(objectMapper, accept, movieService::streamAllMovies);
+    }
+
+    @GetMapping("/query")
+    @ConditionalGet(value = {CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.ACTOR},
+                    cacheControl = "${movies.http.cache-control.movies}")
+    public ResponseEntity<?> queryMovies(
+            MovieQueryDTO query,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
+
+        if (page < 0) {
+            throw new InvalidPaginationException("Invalid pagination parameters: page must be non-negative and size must be positive.");
+        }
+        Pageable pageable = PageRequest.of(page, CursorPages.size(size));
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(movieQueryService.findMovieSummaries(query, pageable));
+        }
+        return ResponseEntity.ok(movieQueryService.findMovies(query, pageable));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Movie> getMovieById(@PathVariable Long id) {
+    public ResponseEntity<Movie> getMovieById(@PathVariable Long id, ServletWebRequest request) {
+        // The body embeds the movie's genres and actors, so their change counters are part of the ETag.
+        Optional<Long> version = movieService.getMovieVersion(id);
+        if (version.isPresent() && HttpCaching.isNotModified(request, "movie-" + id + "-v" + version.get() + "-"
+                + changeTracker.version(CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.ACTOR), cacheControl)) {
+            return HttpCaching.notModified();
+        }
         Movie movie = movieService.getMovieById(id).orElseThrow(() ->
             new ResourceNotFoundException("Movie with id " + id + " not found"));
         return ResponseEntity.ok(movie);
     }
 
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarMovieDTO>> getSimilarMovies(@PathVariable Long id,
+                                                                  @RequestParam(required = false, defaultValue = "10") int limit) {
+        if (limit <= 0) {
+            throw new InvalidQueryException("limit must be positive");
+        }
+        if (!movieService.isSimilarityIndexReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        List<SimilarMovieDTO> similar = movieService.getSimilarMovies(id, limit)
+                .orElseThrow(() -> new ResourceNotFoundException("Movie with id " + id + " not found"));
+        return ResponseEntity.ok(similar);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Movie> updateMovie(@PathVariable Long id, @Valid @RequestBody MovieUpdateDTO movieUpdateDTO) {
         Optional<Movie> movie = movieService.updateMovie(id, movieUpdateDTO);
@@ -96,6 +299,8 @@ public class MovieController {
     }
 
     @GetMapping("/{movieId}/actors")
+    @ConditionalGet(value = {CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.ACTOR},
+                    cacheControl = "${movies.http.cache-control.movies}")
     public ResponseEntity<List<Actor>> getActorsByMovie(
             @PathVariable Long movieId,
             @RequestParam(required = false, defaultValue = "0") int page,
@@ -113,10 +318,13 @@ public class MovieController {
     }
 
     @GetMapping("/search")
+    @ConditionalGet(value = {CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.ACTOR},
+                    cacheControl = "${movies.http.cache-control.movies}")
     public ResponseEntity<?> searchMoviesByTitle(
             @RequestParam String title,
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
 
         if (title == null || title.trim().isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -130,6 +338,12 @@ public class MovieController {
         Pageable pageable = (size != null) ? PageRequest.of(page, size) : Pageable.unpaged();
 
         try {
+            if (isSummaryView(view)) {
+                Slice<MovieSummaryDTO> summaries = movieService.searchMovieSummariesByTitle(title, pageable).orElseThrow(() ->
+                    new ResourceNotFoundException("No movies found matching the title: " + title));
+                return ResponseEntity.ok(summaries.getContent());
+            }
+
             Page<Movie> moviePage = movieService.searchMoviesByTitle(title, pageable).orElseThrow(() ->
                 new ResourceNotFoundException("No movies found matching the title: " + title));
 
@@ -140,4 +354,15 @@ public class MovieController {
                     .body(Collections.singletonMap("message", e.getMessage()));
         }
     }
+
+    // view=summary lists movies as MovieSummaryDTO rows; view=full, the default, includes genres and actors.
+    static boolean isSummaryView(String view) {
+        if (view == null || view.equals("full")) {
+            return false;
+        }
+        if (view.equals("summary")) {
+            return true;
+        }
+        throw new InvalidQueryException("Invalid view parameter: expected summary or full.");
+    }
 }
@@ -0,0 +1,115 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.exceptions.ResourceNotFoundException;
+import com.example.movies_api.services.ReactiveMovieService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reactive variant of the movie reads in {@link MovieController}. The handlers return as soon
+ * as the read is queued on {@link ReactiveMovieService}'s scheduler, so waiting for SQLite does
+ * not hold a servlet thread. Clients that accept {@code application/x-ndjson} get the whole
+ * listing streamed page by page at the pace they read it.
+ */
+@RestController
+@RequestMapping("/api/v2/movies")
+public class ReactiveMovieController {
+
+    private final ReactiveMovieService reactiveMovieService;
+    private final ObjectWriter ndjsonWriter;
+
+    @Autowired
+    public ReactiveMovieController(ReactiveMovieService reactiveMovieService, ObjectMapper objectMapper) {
+        this.reactiveMovieService = reactiveMovieService;
+        this.ndjsonWriter = objectMapper.writer().withRootValueSeparator("\n");
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> getMovies(
+            @RequestParam(required = false) Long genre,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Long actor,
+            @RequestParam(required = false, defaultValue = "") String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view,
+            HttpServletResponse response) {
+        varyOnAccept(response);
+        long afterId = afterId(after);
+        int pageSize = CursorPages.size(size);
+        if (MovieController.isSummaryView(view)) {
+            return reactiveMovieService.getMovieSummaries(genre, year, actor, afterId, pageSize)
+                    .<ResponseEntity<?>>map(page -> CursorPages.toResponse(page, movie -> PageCursor.afterId(movie.getId())));
+        }
+        return reactiveMovieService.getMovies(genre, year, actor, afterId, pageSize)
+                .<ResponseEntity<?>>map(page -> CursorPages.toResponse(page, movie -> PageCursor.afterId(movie.getId())));
+    }
+
+    // Spring MVC writes and flushes each element separately, so every page goes out as one
+    // chunk of newline-separated objects; the line break after it is added by MVC.
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<byte[]> streamMovies(
+            @RequestParam(required = false) Long genre,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Long actor,
+            @RequestParam(required = false, defaultValue = "") String after,
+            @RequestParam(required = false) String view,
+            HttpServletResponse response) {
+        varyOnAccept(response);
+        long afterId = afterId(after);
+        if (MovieController.isSummaryView(view)) {
+            return reactiveMovieService.streamMovieSummaries(genre, year, actor, afterId).map(this::toNdjson);
+        }
+        return reactiveMovieService.streamMovies(genre, year, actor, afterId).map(this::toNdjson);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Movie> getMovieById(@PathVariable Long id) {
+        return reactiveMovieService.getMovieById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Movie with id " + id + " not found")));
+    }
+
+    // The scheduler's queue is full: shed the request rather than queue it without bound.
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> handleOverload() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+
+    private byte[] toNdjson(List<?> page) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(page.size() * 256);
+        try (SequenceWriter writer = ndjsonWriter.writeValues(out)) {
+            writer.writeAll(page);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Both listing handlers share a URL and are chosen by Accept, so caches must key on it.
+    private static void varyOnAccept(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    // These listings are ordered by id only, so release-year cursors from v1 do not apply.
+    private static long afterId(String after) {
+        return CursorPages.parse(after, false).getId();
+    }
+}
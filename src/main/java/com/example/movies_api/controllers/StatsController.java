@@ -0,0 +1,57 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.CatalogStatsDTO;
+import com.example.movies_api.dto.MovieGroupStatsDTO;
+import com.example.movies_api.services.CatalogStats;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Catalog aggregates served from {@link CatalogStats}; none of these endpoints query the database.
+ * Unknown genre, actor or year keys report zero movies.
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final CatalogStats catalogStats;
+
+    @Autowired
+    public StatsController(CatalogStats catalogStats) {
+        this.catalogStats = catalogStats;
+    }
+
+    @GetMapping
+    public ResponseEntity<CatalogStatsDTO> getTotals() {
+        return ResponseEntity.ok(catalogStats.totals());
+    }
+
+    @GetMapping("/genres")
+    public ResponseEntity<List<MovieGroupStatsDTO>> getGenreStats() {
+        return ResponseEntity.ok(catalogStats.genres());
+    }
+
+    @GetMapping("/genres/{id}")
+    public ResponseEntity<MovieGroupStatsDTO> getGenreStats(@PathVariable Long id) {
+        return ResponseEntity.ok(catalogStats.genre(id));
+    }
+
+    @GetMapping("/years")
+    public ResponseEntity<List<MovieGroupStatsDTO>> getYearStats() {
+        return ResponseEntity.ok(catalogStats.years());
+    }
+
+    @GetMapping("/years/{year}")
+    public ResponseEntity<MovieGroupStatsDTO> getYearStats(@PathVariable int year) {
+        return ResponseEntity.ok(catalogStats.year(year));
+    }
+
+    @GetMapping("/actors/{id}")
+    public ResponseEntity<MovieGroupStatsDTO> getActorStats(@PathVariable Long id) {
+        return ResponseEntity.ok(catalogStats.actor(id));
+    }
+}
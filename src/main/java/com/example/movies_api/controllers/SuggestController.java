@@ -0,0 +1,49 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.SuggestionDTO;
+import com.example.movies_api.exceptions.InvalidQueryException;
+import com.example.movies_api.services.SuggestionIndex;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Typeahead for search boxes, answered from {@link SuggestionIndex} without a database query.
+ */
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestController {
+
+    static final int MAX_LIMIT = 50;
+
+    private final SuggestionIndex suggestionIndex;
+
+    @Autowired
+    public SuggestController(SuggestionIndex suggestionIndex) {
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "all") String type,
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new InvalidQueryException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        boolean movies = type.equals("all") || type.equals(SuggestionDTO.MOVIE);
+        boolean actors = type.equals("all") || type.equals(SuggestionDTO.ACTOR);
+        if (!movies && !actors) {
+            throw new InvalidQueryException("type must be one of all, movie, actor");
+        }
+        if (!suggestionIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok(suggestionIndex.suggest(q, limit, movies, actors));
+    }
+}
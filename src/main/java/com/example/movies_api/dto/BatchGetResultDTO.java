@@ -0,0 +1,20 @@
+package com.example.movies_api.dto;
+
+import java.util.List;
+
+/**
+ * Response of a multi-get: the items found, in the order their ids were requested, and the
+ * requested ids that do not exist.
+ */
+public class BatchGetResultDTO<T> {
+    private final List<T> items;
+    private final List<Long> missingIds;
+
+    public BatchGetResultDTO(List<T> items, List<Long> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    public List<T> getItems() { return items; }
+    public List<Long> getMissingIds() { return missingIds; }
+}
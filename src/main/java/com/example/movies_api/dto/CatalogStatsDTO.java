@@ -0,0 +1,20 @@
+package com.example.movies_api.dto;
+
+public class CatalogStatsDTO {
+    private final long movies;
+    private final long genres;
+    private final long actors;
+    private final double averageDuration;
+
+    public CatalogStatsDTO(long movies, long genres, long actors, double averageDuration) {
+        this.movies = movies;
+        this.genres = genres;
+        this.actors = actors;
+        this.averageDuration = averageDuration;
+    }
+
+    public long getMovies() { return movies; }
+    public long getGenres() { return genres; }
+    public long getActors() { return actors; }
+    public double getAverageDuration() { return averageDuration; }
+}
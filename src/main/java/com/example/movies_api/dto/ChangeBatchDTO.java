@@ -0,0 +1,20 @@
+package com.example.movies_api.dto;
+
+import java.util.List;
+
+/**
+ * A batch of changes in sequence order. {@code next} is the sequence number to pass as
+ * {@code since} for the following batch.
+ */
+public class ChangeBatchDTO {
+    private final List<ChangeDTO> changes;
+    private final long next;
+
+    public ChangeBatchDTO(List<ChangeDTO> changes, long next) {
+        this.changes = changes;
+        this.next = next;
+    }
+
+    public List<ChangeDTO> getChanges() { return changes; }
+    public long getNext() { return next; }
+}
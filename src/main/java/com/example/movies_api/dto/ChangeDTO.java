@@ -0,0 +1,30 @@
+package com.example.movies_api.dto;
+
+/**
+ * One entry of the change log: a movie, actor or genre that was created, updated or deleted.
+ * The version is the entity's version after the change (before it, for deletes).
+ */
+public class ChangeDTO {
+    private final long seq;
+    private final String entity;
+    private final long id;
+    private final String operation;
+    private final long version;
+    private final long changedAt;
+
+    public ChangeDTO(long seq, String entity, long id, String operation, long version, long changedAt) {
+        this.seq = seq;
+        this.entity = entity;
+        this.id = id;
+        this.operation = operation;
+        this.version = version;
+        this.changedAt = changedAt;
+    }
+
+    public long getSeq() { return seq; }
+    public String getEntity() { return entity; }
+    public long getId() { return id; }
+    public String getOperation() { return operation; }
+    public long getVersion() { return version; }
+    public long getChangedAt() { return changedAt; }
+}
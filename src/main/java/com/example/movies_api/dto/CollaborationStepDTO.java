@@ -0,0 +1,24 @@
+package com.example.movies_api.dto;
+
+/**
+ * One actor on a collaboration path, with the movie shared with the previous actor
+ * (null for the first actor).
+ */
+public class CollaborationStepDTO {
+    private final Long actorId;
+    private final String actorName;
+    private final Long movieId;
+    private final String movieTitle;
+
+    public CollaborationStepDTO(Long actorId, String actorName, Long movieId, String movieTitle) {
+        this.actorId = actorId;
+        this.actorName = actorName;
+        this.movieId = movieId;
+        this.movieTitle = movieTitle;
+    }
+
+    public Long getActorId() { return actorId; }
+    public String getActorName() { return actorName; }
+    public Long getMovieId() { return movieId; }
+    public String getMovieTitle() { return movieTitle; }
+}
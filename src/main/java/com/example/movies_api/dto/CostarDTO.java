@@ -0,0 +1,17 @@
+package com.example.movies_api.dto;
+
+public class CostarDTO {
+    private final Long actorId;
+    private final String name;
+    private final int sharedMovies;
+
+    public CostarDTO(Long actorId, String name, int sharedMovies) {
+        this.actorId = actorId;
+        this.name = name;
+        this.sharedMovies = sharedMovies;
+    }
+
+    public Long getActorId() { return actorId; }
+    public String getName() { return name; }
+    public int getSharedMovies() { return sharedMovies; }
+}
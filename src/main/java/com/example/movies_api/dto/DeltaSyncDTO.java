@@ -0,0 +1,24 @@
+package com.example.movies_api.dto;
+
+import java.util.List;
+
+/**
+ * One page of a {@code modifiedSince} listing: the rows created or updated at or after that time,
+ * oldest change first, and on the last page the ids deleted since then. {@code lastModified} is
+ * the time to pass as {@code modifiedSince} on the next sync.
+ */
+public class DeltaSyncDTO<T> {
+    private final List<T> items;
+    private final List<Long> deletedIds;
+    private final long lastModified;
+
+    public DeltaSyncDTO(List<T> items, List<Long> deletedIds, long lastModified) {
+        this.items = items;
+        this.deletedIds = deletedIds;
+        this.lastModified = lastModified;
+    }
+
+    public List<T> getItems() { return items; }
+    public List<Long> getDeletedIds() { return deletedIds; }
+    public long getLastModified() { return lastModified; }
+}
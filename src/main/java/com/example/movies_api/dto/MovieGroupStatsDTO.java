@@ -0,0 +1,20 @@
+package com.example.movies_api.dto;
+
+/**
+ * Movie count and average duration for one group: a genre or actor id, or a release year.
+ */
+public class MovieGroupStatsDTO {
+    private final long key;
+    private final long movies;
+    private final double averageDuration;
+
+    public MovieGroupStatsDTO(long key, long movies, double averageDuration) {
+        this.key = key;
+        this.movies = movies;
+        this.averageDuration = averageDuration;
+    }
+
+    public long getKey() { return key; }
+    public long getMovies() { return movies; }
+    public double getAverageDuration() { return averageDuration; }
+}
@@ -0,0 +1,22 @@
+package com.example.movies_api.dto;
+
+import java.util.List;
+
+public class MovieImportRowDTO {
+    private String title;
+    private Integer releaseYear;
+    private Integer duration;
+    private List<String> genres;
+    private List<String> actors;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public Integer getReleaseYear() { return releaseYear; }
+    public void setReleaseYear(Integer releaseYear) { this.releaseYear = releaseYear; }
+    public Integer getDuration() { return duration; }
+    public void setDuration(Integer duration) { this.duration = duration; }
+    public List<String> getGenres() { return genres; }
+    public void setGenres(List<String> genres) { this.genres = genres; }
+    public List<String> getActors() { return actors; }
+    public void setActors(List<String> actors) { this.actors = actors; }
+}
@@ -0,0 +1,45 @@
+package com.example.movies_api.dto;
+
+import java.util.List;
+
+/**
+ * Filters for GET /api/movies/query, bound from request parameters. Every filter is
+ * optional; {@code genreMatch}/{@code actorMatch} choose whether a movie needs any or
+ * all of the listed ids, and {@code match} whether it must pass all filters or any one.
+ */
+public class MovieQueryDTO {
+    private List<Long> genres;
+    private String genreMatch;
+    private List<Long> actors;
+    private String actorMatch;
+    private Integer yearFrom;
+    private Integer yearTo;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private String title;
+    private String match;
+    private String sort;
+
+    public List<Long> getGenres() { return genres; }
+    public void setGenres(List<Long> genres) { this.genres = genres; }
+    public String getGenreMatch() { return genreMatch; }
+    public void setGenreMatch(String genreMatch) { this.genreMatch = genreMatch; }
+    public List<Long> getActors() { return actors; }
+    public void setActors(List<Long> actors) { this.actors = actors; }
+    public String getActorMatch() { return actorMatch; }
+    public void setActorMatch(String actorMatch) { this.actorMatch = actorMatch; }
+    public Integer getYearFrom() { return yearFrom; }
+    public void setYearFrom(Integer yearFrom) { this.yearFrom = yearFrom; }
+    public Integer getYearTo() { return yearTo; }
+    public void setYearTo(Integer yearTo) { this.yearTo = yearTo; }
+    public Integer getMinDuration() { return minDuration; }
+    public void setMinDuration(Integer minDuration) { this.minDuration = minDuration; }
+    public Integer getMaxDuration() { return maxDuration; }
+    public void setMaxDuration(Integer maxDuration) { this.maxDuration = maxDuration; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getMatch() { return match; }
+    public void setMatch(String match) { this.match = match; }
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+}
@@ -0,0 +1,25 @@
+package com.example.movies_api.dto;
+
+/**
+ * Flat listing row for {@code view=summary}: the movie's own columns without its
+ * genres and actors. Built by constructor expressions in the repository queries,
+ * so no managed entity or association is loaded to produce it.
+ */
+public class MovieSummaryDTO {
+    private final Long id;
+    private final String title;
+    private final int releaseYear;
+    private final int duration;
+
+    public MovieSummaryDTO(Long id, String title, int releaseYear, int duration) {
+        this.id = id;
+        this.title = title;
+        this.releaseYear = releaseYear;
+        this.duration = duration;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public int getReleaseYear() { return releaseYear; }
+    public int getDuration() { return duration; }
+}
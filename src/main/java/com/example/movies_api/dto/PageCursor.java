@@ -0,0 +1,72 @@
+package com.example.movies_api.dto;
+
+import com.example.movies_api.exceptions.InvalidPaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort key of the last row
+ * a client has seen. Listings ordered by id only carry the id; listings ordered
+ * by release year or by modification time carry the year or the time as well, so
+ * the cursor also records the order.
+ */
+public class PageCursor {
+    private final Integer releaseYear;
+    private final Long updatedAt;
+    private final long id;
+
+    private PageCursor(Integer releaseYear, Long updatedAt, long id) {
+        this.releaseYear = releaseYear;
+        this.updatedAt = updatedAt;
+        this.id = id;
+    }
+
+    public static PageCursor first(boolean byReleaseYear) {
+        return new PageCursor(byReleaseYear ? Integer.MIN_VALUE : null, null, 0);
+    }
+
+    public static PageCursor afterId(long id) {
+        return new PageCursor(null, null, id);
+    }
+
+    public static PageCursor afterReleaseYear(int releaseYear, long id) {
+        return new PageCursor(releaseYear, null, id);
+    }
+
+    public static PageCursor afterUpdatedAt(long updatedAt, long id) {
+        return new PageCursor(null, updatedAt, id);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split(":");
+            if (parts.length == 2 && parts[0].equals("i")) {
+                return afterId(Long.parseLong(parts[1]));
+            }
+            if (parts.length == 3 && parts[0].equals("y")) {
+                return afterReleaseYear(Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+            }
+            if (parts.length == 3 && parts[0].equals("u")) {
+                return afterUpdatedAt(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the error below
+        }
+        throw new InvalidPaginationException("Invalid pagination cursor: " + token);
+    }
+
+    public String encode() {
+        String value = releaseYear != null ? "y:" + releaseYear + ":" + id
+                : updatedAt != null ? "u:" + updatedAt + ":" + id
+                : "i:" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isByReleaseYear() { return releaseYear != null; }
+    public Integer getReleaseYear() { return releaseYear; }
+    public boolean isByUpdatedAt() { return updatedAt != null; }
+    public Long getUpdatedAt() { return updatedAt; }
+    public long getId() { return id; }
+}
@@ -0,0 +1,26 @@
+package com.example.movies_api.dto;
+
+public class SimilarMovieDTO {
+    private final Long id;
+    private final String title;
+    private final int releaseYear;
+    private final int sharedGenres;
+    private final int sharedActors;
+    private final double score;
+
+    public SimilarMovieDTO(Long id, String title, int releaseYear, int sharedGenres, int sharedActors, double score) {
+        this.id = id;
+        this.title = title;
+        this.releaseYear = releaseYear;
+        this.sharedGenres = sharedGenres;
+        this.sharedActors = sharedActors;
+        this.score = score;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public int getReleaseYear() { return releaseYear; }
+    public int getSharedGenres() { return sharedGenres; }
+    public int getSharedActors() { return sharedActors; }
+    public double getScore() { return score; }
+}
@@ -0,0 +1,20 @@
+package com.example.movies_api.dto;
+
+public class SuggestionDTO {
+    public static final String MOVIE = "movie";
+    public static final String ACTOR = "actor";
+
+    private final String type;
+    private final long id;
+    private final String text;
+
+    public SuggestionDTO(String type, long id, String text) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+    }
+
+    public String getType() { return type; }
+    public long getId() { return id; }
+    public String getText() { return text; }
+}
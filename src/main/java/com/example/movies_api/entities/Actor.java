@@ -13,11 +13,24 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_actor_name", columnList = "name"),
+    @Index(name = "idx_actor_updated_at", columnList = "updated_at, id")
+})
 public class Actor {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "integer not null default 0")
+    @JsonIgnore
+    private long version;
+
+    @Column(columnDefinition = "integer not null default 0", insertable = false, updatable = false)
+    @JsonIgnore
+    private long updatedAt;
+
     @NotBlank(message = "Name cannot be null")
     @Size(min = 1, max = 100, message = "Name must be between 1 and 100 characters")
     private String name;
@@ -47,6 +60,22 @@ public class Actor {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getName() {
         return name;
     }
@@ -10,11 +10,24 @@ import java.util.Set;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_genre_name", columnList = "name"),
+    @Index(name = "idx_genre_updated_at", columnList = "updated_at, id")
+})
 public class Genre {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "integer not null default 0")
+    @JsonIgnore
+    private long version;
+
+    @Column(columnDefinition = "integer not null default 0", insertable = false, updatable = false)
+    @JsonIgnore
+    private long updatedAt;
+
     @NotBlank(message = "Name cannot be empty")
     @Size(min = 1, max = 100, message = "Name must be between 1 and 100 characters")
     private String name;
@@ -38,6 +51,22 @@ public class Genre {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getName() {
         return name;
     }
@@ -4,16 +4,33 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_movie_release_year", columnList = "release_year, id"),
+    @Index(name = "idx_movie_duration", columnList = "duration, id"),
+    @Index(name = "idx_movie_updated_at", columnList = "updated_at, id")
+})
 public class Movie {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "integer not null default 0")
+    @JsonIgnore
+    private long version;
+
+    // Stamped by database triggers on every insert and update (migration V7), never by Hibernate.
+    @Column(columnDefinition = "integer not null default 0", insertable = false, updatable = false)
+    @JsonIgnore
+    private long updatedAt;
+
     @NotBlank(message = "Title cannot be empty")
     @Size(min = 1, max = 100, message = "Title must be between 1 and 100 characters")
     private String title;
@@ -25,18 +42,22 @@ public class Movie {
     private int duration;
 
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
         name = "movie_genre",
         joinColumns = @JoinColumn(name = "movie_id"),
-        inverseJoinColumns = @JoinColumn(name = "genre_id")
+        inverseJoinColumns = @JoinColumn(name = "genre_id"),
+        indexes = @Index(name = "idx_movie_genre_genre", columnList = "genre_id, movie_id")
     )
     private Set<Genre> genres = new HashSet<>();
 
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
         name = "movie_actor",
         joinColumns = @JoinColumn(name = "movie_id"),
-        inverseJoinColumns = @JoinColumn(name = "actor_id")
+        inverseJoinColumns = @JoinColumn(name = "actor_id"),
+        indexes = @Index(name = "idx_movie_actor_actor", columnList = "actor_id, movie_id")
     )
     private Set<Actor> actors = new HashSet<>();
 
@@ -57,6 +78,22 @@ public class Movie {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getTitle() {
         return title;
     }
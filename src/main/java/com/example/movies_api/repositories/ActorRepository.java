@@ -1,12 +1,20 @@
 package com.example.movies_api.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import com.example.movies_api.entities.Actor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface ActorRepository extends JpaRepository<Actor, Long> {
@@ -14,5 +22,17 @@ public interface ActorRepository extends JpaRepository<Actor, Long> {
     @Query("SELECT a FROM Actor a JOIN a.movies m WHERE m.id = :movieId")
     Page<Actor> findByMovieId(@Param("movieId") Long movieId, Pageable pageable);
     Optional<Actor> findByName(String name);
+    List<Actor> findByNameIn(Collection<String> names);
+    Slice<Actor> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    @Query("SELECT a FROM Actor a WHERE a.updatedAt >= :updatedAt AND (a.updatedAt > :updatedAt OR a.id > :id) " +
+           "ORDER BY a.updatedAt, a.id")
+    Slice<Actor> findAfterUpdatedAt(@Param("updatedAt") long updatedAt, @Param("id") Long id, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Actor a ORDER BY a.id")
+    Stream<Actor> streamAll();
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Actor a WHERE a.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+    Slice<Actor> findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String name, Long id, Pageable pageable);
 
 }
\ No newline at end of file
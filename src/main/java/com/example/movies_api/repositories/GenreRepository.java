@@ -2,10 +2,32 @@ package com.example.movies_api.repositories;
 
 import com.example.movies_api.entities.Genre;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface GenreRepository extends JpaRepository<Genre, Long> {
     Optional<Genre> findByName(String name);
+    List<Genre> findByNameIn(Collection<String> names);
+    Slice<Genre> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    @Query("SELECT g FROM Genre g WHERE g.updatedAt >= :updatedAt AND (g.updatedAt > :updatedAt OR g.id > :id) " +
+           "ORDER BY g.updatedAt, g.id")
+    Slice<Genre> findAfterUpdatedAt(@Param("updatedAt") long updatedAt, @Param("id") Long id, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT g FROM Genre g ORDER BY g.id")
+    Stream<Genre> streamAll();
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Genre g WHERE g.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
  }
@@ -1,17 +1,118 @@
 package com.example.movies_api.repositories;
 
+import com.example.movies_api.dto.MovieSummaryDTO;
 import com.example.movies_api.entities.Movie;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MovieRepository extends JpaRepository<Movie, Long> {
+    String SELECT_SUMMARY = "SELECT new com.example.movies_api.dto.MovieSummaryDTO(m.id, m.title, m.releaseYear, m.duration) " +
+                            "FROM Movie m ";
+
     Page<Movie> findByReleaseYear(int releaseYear, Pageable pageable);
     Page<Movie> findByGenres_Id(Long genreId, Pageable pageable);
     Page<Movie> findByActors_Id(Long actorId, Pageable pageable);
     @Query("SELECT m FROM Movie m WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :title, '%'))")
     Page<Movie> findByTitleContainingIgnoreCase(@Param("title") String title, Pageable pageable);
-}
+    @Query(value = "SELECT m.* FROM movie_title_fts JOIN movie m ON m.id = movie_title_fts.rowid " +
+                   "WHERE movie_title_fts MATCH :query ORDER BY movie_title_fts.rank, m.id",
+           countQuery = "SELECT COUNT(*) FROM movie_title_fts WHERE movie_title_fts MATCH :query",
+           nativeQuery = true)
+    Page<Movie> searchByTitle(@Param("query") String query, Pageable pageable);
+
+    Slice<Movie> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m FROM Movie m ORDER BY m.id")
+    Stream<Movie> streamAll();
+
+    @Query(SELECT_SUMMARY + "WHERE m.id IN :ids")
+    List<MovieSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
+    // Summary listings return slices in id order, so offset pages and cursor pages share one query.
+    @Query(SELECT_SUMMARY + "WHERE m.id > :id ORDER BY m.id")
+    Slice<MovieSummaryDTO> findSummariesAfter(@Param("id") long id, Pageable pageable);
+    @Query(SELECT_SUMMARY + "WHERE m.releaseYear >= :releaseYear AND (m.releaseYear > :releaseYear OR m.id > :id) " +
+           "ORDER BY m.releaseYear, m.id")
+    Slice<MovieSummaryDTO> findSummariesAfterReleaseYear(@Param("releaseYear") int releaseYear, @Param("id") long id,
+                                                         Pageable pageable);
+    @Query(SELECT_SUMMARY + "WHERE m.releaseYear = :releaseYear AND m.id > :id ORDER BY m.id")
+    Slice<MovieSummaryDTO> findSummariesByReleaseYearAfter(@Param("releaseYear") int releaseYear, @Param("id") long id,
+                                                           Pageable pageable);
+    @Query(SELECT_SUMMARY + "JOIN m.genres g WHERE g.id = :genreId AND m.id > :id ORDER BY m.id")
+    Slice<MovieSummaryDTO> findSummariesByGenreAfter(@Param("genreId") Long genreId, @Param("id") long id, Pageable pageable);
+    @Query(SELECT_SUMMARY + "JOIN m.actors a WHERE a.id = :actorId AND m.id > :id ORDER BY m.id")
+    Slice<MovieSummaryDTO> findSummariesByActorAfter(@Param("actorId") Long actorId, @Param("id") long id, Pageable pageable);
+    @Query(SELECT_SUMMARY + "WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    Slice<MovieSummaryDTO> findSummariesByTitleContainingIgnoreCase(@Param("title") String title, Pageable pageable);
+    // Native queries cannot use constructor expressions, so the full-text search maps to an interface projection.
+    @Query(value = "SELECT m.id AS id, m.title AS title, m.release_year AS releaseYear, m.duration AS duration " +
+                   "FROM movie_title_fts JOIN movie m ON m.id = movie_title_fts.rowid " +
+                   "WHERE movie_title_fts MATCH :query ORDER BY movie_title_fts.rank, m.id",
+           nativeQuery = true)
+    Slice<SummaryRow> searchSummariesByTitle(@Param("query") String query, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_SUMMARY + "ORDER BY m.id")
+    Stream<MovieSummaryDTO> streamAllSummaries();
+
+    @Query("SELECT m.version FROM Movie m WHERE m.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    boolean existsByGenres_Id(Long genreId);
+    boolean existsByActors_Id(Long actorId);
+    boolean existsByIdAndGenresIsNotEmpty(Long id);
+    boolean existsByIdAndActorsIsNotEmpty(Long id);
+
+    @Modifying
+    @Query(value = "UPDATE movie SET version = version + 1 " +
+                   "WHERE id IN (SELECT movie_id FROM movie_genre WHERE genre_id = :genreId)", nativeQuery = true)
+    int incrementVersionsByGenre(@Param("genreId") Long genreId);
+    @Modifying
+    @Query(value = "UPDATE movie SET version = version + 1 " +
+                   "WHERE id IN (SELECT movie_id FROM movie_actor WHERE actor_id = :actorId)", nativeQuery = true)
+    int incrementVersionsByActor(@Param("actorId") Long actorId);
+    @Modifying
+    @Query(value = "DELETE FROM movie_genre WHERE genre_id = :genreId", nativeQuery = true)
+    int unlinkGenre(@Param("genreId") Long genreId);
+    @Modifying
+    @Query(value = "DELETE FROM movie_actor WHERE actor_id = :actorId", nativeQuery = true)
+    int unlinkActor(@Param("actorId") Long actorId);
+    @Modifying
+    @Query(value = "DELETE FROM movie_genre WHERE movie_id = :movieId", nativeQuery = true)
+    int unlinkAllGenres(@Param("movieId") Long movieId);
+    @Modifying
+    @Query(value = "DELETE FROM movie_actor WHERE movie_id = :movieId", nativeQuery = true)
+    int unlinkAllActors(@Param("movieId") Long movieId);
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Movie m WHERE m.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+    Slice<Movie> findByGenres_IdAndIdGreaterThanOrderByIdAsc(Long genreId, Long id, Pageable pageable);
+    Slice<Movie> findByActors_IdAndIdGreaterThanOrderByIdAsc(Long actorId, Long id, Pageable pageable);
+    Slice<Movie> findByReleaseYearAndIdGreaterThanOrderByIdAsc(int releaseYear, Long id, Pageable pageable);
+    // The leading >= lets SQLite seek into the (release_year, id) index instead of scanning it.
+    @Query("SELECT m FROM Movie m WHERE m.releaseYear >= :releaseYear AND (m.releaseYear > :releaseYear OR m.id > :id) " +
+           "ORDER BY m.releaseYear, m.id")
+    Slice<Movie> findAfterReleaseYear(@Param("releaseYear") int releaseYear, @Param("id") Long id, Pageable pageable);
+    @Query("SELECT m FROM Movie m WHERE m.updatedAt >= :updatedAt AND (m.updatedAt > :updatedAt OR m.id > :id) " +
+           "ORDER BY m.updatedAt, m.id")
+    Slice<Movie> findAfterUpdatedAt(@Param("updatedAt") long updatedAt, @Param("id") Long id, Pageable pageable);
+
+    interface SummaryRow {
+        Long getId();
+        String getTitle();
+        int getReleaseYear();
+        int getDuration();
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.movies_api.services;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The movie_actor table as an in-memory graph, for co-star and collaboration path queries
+ * that would otherwise take one query per hop. Each direction (movie to actors, actor to
+ * movies) is stored in compressed sparse row form: an offset per id into one int array of
+ * sorted neighbour ids, so an edge costs 8 bytes overall and a traversal creates no entities.
+ *
+ * Writes are applied after their transaction commits to a small overlay of changed
+ * adjacency lists, which is folded into new arrays once it grows past a fraction of the graph.
+ */
+@Component
+public class ActorGraph {
+
+    private static final int MIN_COMPACTION_THRESHOLD = 4096;
+    private static final int[] NONE = new int[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Adjacency actorsByMovie = new Adjacency(new int[1], NONE);
+    private Adjacency moviesByActor = new Adjacency(new int[1], NONE);
+
+    @Autowired
+    public ActorGraph(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void load() {
+        EdgeBuffer edges = new EdgeBuffer(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movie_actor", Integer.class));
+        // The primary key index returns the edges by movie and then actor, so both directions come out sorted.
+        jdbcTemplate.query("SELECT movie_id, actor_id FROM movie_actor ORDER BY movie_id, actor_id",
+                rs -> { edges.add(key(rs.getLong(1)), key(rs.getLong(2))); });
+
+        lock.writeLock().lock();
+        try {
+            actorsByMovie = Adjacency.of(edges.movies, edges.actors, edges.size);
+            moviesByActor = Adjacency.of(edges.actors, edges.movies, edges.size);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Records the complete cast of a created or updated movie; an empty cast removes a deleted movie.
+    public void castChanged(long movieId, Collection<Long> actorIds) {
+        int movie = key(movieId);
+        int[] cast = actorIds.stream().mapToInt(ActorGraph::key).distinct().sorted().toArray();
+        AfterCommit.batch(this, () -> setCast(movie, cast), this::apply);
+    }
+
+    // Removes a deleted actor from every movie it was linked to.
+    public void actorRemoved(long actorId) {
+        int actor = key(actorId);
+        AfterCommit.batch(this, () -> {
+            for (int movie : moviesByActor.get(actor)) {
+                setCast(movie, without(actorsByMovie.get(movie), actor));
+            }
+        }, this::apply);
+    }
+
+    public int movieCount(long actorId) {
+        lock.readLock().lock();
+        try {
+            return moviesByActor.degree(key(actorId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Actors who appear in movies with the given actor, by number of shared movies (most
+     * first, ties by id), at most {@code limit} of them.
+     */
+    public List<Costar> costars(long actorId, int limit) {
+        int actor = key(actorId);
+        int[] costars;
+        lock.readLock().lock();
+        try {
+            int[] movies = moviesByActor.get(actor);
+            int total = 0;
+            for (int movie : movies) {
+                total += actorsByMovie.degree(movie);
+            }
+            costars = new int[total];
+            int size = 0;
+            for (int movie : movies) {
+                for (int costar : actorsByMovie.get(movie)) {
+                    if (costar != actor) {
+                        costars[size++] = costar;
+                    }
+                }
+            }
+            costars = Arrays.copyOf(costars, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Count runs of equal ids, then rank by (shared movies, -id) packed into one long.
+        Arrays.sort(costars);
+        long[] ranked = new long[costars.length];
+        int distinct = 0;
+        for (int i = 0; i < costars.length; ) {
+            int j = i;
+            while (j < costars.length && costars[j] == costars[i]) {
+                j++;
+            }
+            ranked[distinct++] = ((long) (j - i) << 32) | (Integer.MAX_VALUE - costars[i]);
+            i = j;
+        }
+        Arrays.sort(ranked, 0, distinct);
+
+        List<Costar> top = new ArrayList<>(Math.min(limit, distinct));
+        for (int i = distinct - 1; i >= 0 && top.size() < limit; i--) {
+            top.add(new Costar(Integer.MAX_VALUE - (int) ranked[i], (int) (ranked[i] >>> 32)));
+        }
+        return top;
+    }
+
+    /**
+     * A shortest chain of shared movies from one actor to another, found by breadth-first
+     * search over at most {@code maxMovies} movies: actor ids at even positions and the movie
+     * linking each actor to the next at odd positions. Returns null when there is none.
+     */
+    public int[] collaborationPath(long fromActorId, long toActorId, int maxMovies) {
+        int from = key(fromActorId);
+        int to = key(toActorId);
+        if (from == to) {
+            return new int[] {from};
+        }
+
+        lock.readLock().lock();
+        try {
+            int actors = moviesByActor.capacity();
+            if (from >= actors || to >= actors) {
+                return null;
+            }
+            int[] previousActor = new int[actors];
+            int[] viaMovie = new int[actors];
+            Arrays.fill(previousActor, -1);
+            previousActor[from] = from;
+            BitSet seenMovies = new BitSet(actorsByMovie.capacity());
+
+            int[] frontier = {from};
+            for (int depth = 0; depth < maxMovies && frontier.length > 0; depth++) {
+                int[] next = new int[16];
+                int size = 0;
+                for (int actor : frontier) {
+                    for (int movie : moviesByActor.get(actor)) {
+                        if (seenMovies.get(movie)) {
+                            continue;
+                        }
+                        seenMovies.set(movie);
+                        for (int costar : actorsByMovie.get(movie)) {
+                            if (previousActor[costar] != -1) {
+                                continue;
+                            }
+                            previousActor[costar] = actor;
+                            viaMovie[costar] = movie;
+                            if (costar == to) {
+                                return path(previousActor, viaMovie, from, to, depth + 1);
+                            }
+                            if (size == next.length) {
+                                next = Arrays.copyOf(next, size * 2);
+                            }
+                            next[size++] = costar;
+                        }
+                    }
+                }
+                frontier = Arrays.copyOf(next, size);
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int[] path(int[] previousActor, int[] viaMovie, int from, int to, int movies) {
+        int[] path = new int[2 * movies + 1];
+        int position = path.length - 1;
+        for (int actor = to; actor != from; actor = previousActor[actor]) {
+            path[position--] = actor;
+            path[position--] = viaMovie[actor];
+        }
+        path[0] = from;
+        return path;
+    }
+
+    private void setCast(int movie, int[] cast) {
+        int[] previous = actorsByMovie.get(movie);
+        int i = 0;
+        int j = 0;
+        while (i < previous.length || j < cast.length) {
+            if (j == cast.length || (i < previous.length && previous[i] < cast[j])) {
+                moviesByActor.set(previous[i], without(moviesByActor.get(previous[i]), movie));
+                i++;
+            } else if (i == previous.length || cast[j] < previous[i]) {
+                moviesByActor.set(cast[j], with(moviesByActor.get(cast[j]), movie));
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        actorsByMovie.set(movie, cast);
+    }
+
+    // Applies the changes of one transaction under a single write lock.
+    private void apply(List<Runnable> changes) {
+        lock.writeLock().lock();
+        try {
+            changes.forEach(Runnable::run);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        int threshold = Math.max(MIN_COMPACTION_THRESHOLD, actorsByMovie.edges() / 16);
+        if (actorsByMovie.changed() + moviesByActor.changed() > threshold) {
+            actorsByMovie = actorsByMovie.compact();
+            moviesByActor = moviesByActor.compact();
+        }
+    }
+
+    private static int[] with(int[] sorted, int value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index >= 0) {
+            return sorted;
+        }
+        int insertion = -index - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, insertion);
+        result[insertion] = value;
+        System.arraycopy(sorted, insertion, result, insertion + 1, sorted.length - insertion);
+        return result;
+    }
+
+    private static int[] without(int[] sorted, int value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return sorted;
+        }
+        int[] result = new int[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        System.arraycopy(sorted, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    private static int key(long id) {
+        return Math.toIntExact(id);
+    }
+
+    public static final class Costar {
+        private final int actorId;
+        private final int sharedMovies;
+
+        Costar(int actorId, int sharedMovies) {
+            this.actorId = actorId;
+            this.sharedMovies = sharedMovies;
+        }
+
+        public int actorId() { return actorId; }
+        public int sharedMovies() { return sharedMovies; }
+    }
+
+    /**
+     * Sorted neighbour lists per int id: offsets[id] to offsets[id + 1] in targets, plus the
+     * lists replaced since the arrays were built, which take precedence.
+     */
+    static final class Adjacency {
+        private final int[] offsets;
+        private final int[] targets;
+        private final Map<Integer, int[]> changed = new HashMap<>();
+        private final BitSet changedIds = new BitSet();
+        private int capacity;
+
+        Adjacency(int[] offsets, int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.capacity = offsets.length - 1;
+        }
+
+        // Counting sort of the edges by key; stable, so targets keep their input order per key.
+        static Adjacency of(int[] keys, int[] values, int size) {
+            int capacity = 0;
+            for (int i = 0; i < size; i++) {
+                capacity = Math.max(capacity, keys[i] + 1);
+            }
+            int[] offsets = new int[capacity + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[keys[i] + 1]++;
+            }
+            for (int key = 0; key < capacity; key++) {
+                offsets[key + 1] += offsets[key];
+            }
+            int[] next = Arrays.copyOf(offsets, capacity);
+            int[] targets = new int[size];
+            for (int i = 0; i < size; i++) {
+                targets[next[keys[i]]++] = values[i];
+            }
+            return new Adjacency(offsets, targets);
+        }
+
+        int[] get(int key) {
+            if (changedIds.get(key)) {
+                return changed.get(key);
+            }
+            return key < offsets.length - 1 ? Arrays.copyOfRange(targets, offsets[key], offsets[key + 1]) : NONE;
+        }
+
+        int degree(int key) {
+            if (changedIds.get(key)) {
+                return changed.get(key).length;
+            }
+            return key < offsets.length - 1 ? offsets[key + 1] - offsets[key] : 0;
+        }
+
+        void set(int key, int[] sorted) {
+            changed.put(key, sorted);
+            changedIds.set(key);
+            capacity = Math.max(capacity, key + 1);
+        }
+
+        int capacity() {
+            return capacity;
+        }
+
+        int changed() {
+            return changed.size();
+        }
+
+        int edges() {
+            return targets.length;
+        }
+
+        Adjacency compact() {
+            int[] newOffsets = new int[capacity + 1];
+            for (int key = 0; key < capacity; key++) {
+                newOffsets[key + 1] = newOffsets[key] + degree(key);
+            }
+            int[] newTargets = new int[newOffsets[capacity]];
+            for (int key = 0; key < capacity; key++) {
+                int[] list = get(key);
+                System.arraycopy(list, 0, newTargets, newOffsets[key], list.length);
+            }
+            return new Adjacency(newOffsets, newTargets);
+        }
+    }
+
+    private static final class EdgeBuffer {
+        private int[] movies;
+        private int[] actors;
+        private int size;
+
+        EdgeBuffer(int expected) {
+            movies = new int[Math.max(expected, 16)];
+            actors = new int[movies.length];
+        }
+
+        void add(int movie, int actor) {
+            if (size == movies.length) {
+                movies = Arrays.copyOf(movies, size * 2);
+                actors = Arrays.copyOf(actors, size * 2);
+            }
+            movies[size] = movie;
+            actors[size] = actor;
+            size++;
+        }
+    }
+}
@@ -1,42 +1,131 @@
 package com.example.movies_api.services;
 
+import com.example.movies_api.config.CacheConfig;
+import com.example.movies_api.dto.CollaborationStepDTO;
+import com.example.movies_api.dto.CostarDTO;
+import com.example.movies_api.dto.MovieSummaryDTO;
 import com.example.movies_api.entities.Actor;
 import com.example.movies_api.entities.Movie;
 import com.example.movies_api.exceptions.ResourceNotFoundException;
 import com.example.movies_api.repositories.ActorRepository;
 import com.example.movies_api.repositories.MovieRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class ActorService {
 
     private final ActorRepository actorRepository;
     private final MovieRepository movieRepository;
+    private final EntityStreamer entityStreamer;
+    private final CacheManager cacheManager;
+    private final CatalogChangeTracker changeTracker;
+    private final CatalogStats catalogStats;
+    private final ActorGraph actorGraph;
+    private final SimilarityIndex similarityIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final CatalogReplica catalogReplica;
 
     @Autowired
-    public ActorService(ActorRepository actorRepository, MovieRepository movieRepository) {
+    public ActorService(ActorRepository actorRepository, MovieRepository movieRepository, EntityStreamer entityStreamer,
+                        CacheManager cacheManager, CatalogChangeTracker changeTracker, CatalogStats catalogStats,
+                        ActorGraph actorGraph, SimilarityIndex similarityIndex, SuggestionIndex suggestionIndex,
+                        CatalogReplica catalogReplica) {
         this.actorRepository = actorRepository;
         this.movieRepository = movieRepository;
+        this.entityStreamer = entityStreamer;
+        this.cacheManager = cacheManager;
+        this.changeTracker = changeTracker;
+        this.catalogStats = catalogStats;
+        this.actorGraph = actorGraph;
+        this.similarityIndex = similarityIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.catalogReplica = catalogReplica;
     }
 
+    @Transactional
     public Actor createActor(Actor actor) {
-        return actorRepository.save(actor);
+        changeTracker.markChanged(CatalogChangeTracker.Table.ACTOR);
+        catalogStats.actorAdded();
+        Actor savedActor = actorRepository.save(actor);
+        suggestionIndex.actorChanged(savedActor.getId(), savedActor.getName());
+        catalogReplica.actorChanged(savedActor);
+        return savedActor;
     }
 
     public Page<Actor> getAllActors(Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null) {
+            return snapshot.actors(pageable);
+        }
         return actorRepository.findAll(pageable);
     }
 
+    public void streamAllActors(Consumer<List<Actor>> chunkConsumer) {
+        entityStreamer.forEachChunk(actorRepository::streamAll, chunkConsumer);
+    }
+
+    public Slice<Actor> getActorsAfter(long afterId, int size) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.actorsAfter(afterId, size);
+        }
+        return actorRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
+    }
+
+    public Slice<Actor> getActorsAfterUpdatedAt(long updatedAt, long afterId, int size) {
+        return actorRepository.findAfterUpdatedAt(updatedAt, afterId, PageRequest.of(0, size));
+    }
+
+    public Slice<Actor> getActorsByNameAfter(String name, long afterId, int size) {
+        return actorRepository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(name, afterId, PageRequest.of(0, size));
+    }
+
+    @Cacheable(value = CacheConfig.ACTORS_BY_ID, unless = "#result == null")
     public Optional<Actor> getActorById(Long id) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.actor(id);
+        }
         return actorRepository.findById(id);
     }
 
+    @Cacheable(value = CacheConfig.ACTORS_BY_NAME, unless = "#result == null")
+    public Optional<Actor> getActorByName(String name) {
+        return actorRepository.findByName(name);
+    }
+
+    /**
+     * Looks up all ids at once: cached actors are reused and the rest are loaded with a
+     * single IN query. Ids that do not exist are simply absent from the result.
+     */
+    public Map<Long, Actor> getActorsByIds(Collection<Long> ids) {
+        return CachedLookups.resolveAll(cacheManager.getCache(CacheConfig.ACTORS_BY_ID), ids,
+                actorRepository::findAllById, Actor::getId);
+    }
+
+    public Map<String, Actor> getActorsByNames(Collection<String> names) {
+        return CachedLookups.resolveAll(cacheManager.getCache(CacheConfig.ACTORS_BY_NAME), names,
+                actorRepository::findByNameIn, Actor::getName);
+    }
+
     public Page<Actor> getActorsByName(String name, Pageable pageable) {
         Page<Actor> matchingActors = actorRepository.findByNameContainingIgnoreCase(name, pageable);
 
@@ -48,6 +137,11 @@ public class ActorService {
     }
 
     public Page<Movie> getMoviesByActor(Long actorId, Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null) {
+            return snapshot.moviesByActor(actorId, pageable).orElseThrow(() ->
+                    new ResourceNotFoundException("Actor with id " + actorId + " not found"));
+        }
         Optional<Actor> actor = actorRepository.findById(actorId);
         if (actor.isEmpty()) {
             throw new ResourceNotFoundException("Actor with id " + actorId + " not found");
@@ -56,6 +150,51 @@ public class ActorService {
         return movieRepository.findByActors_Id(actorId, pageable);
     }
 
+    public List<CostarDTO> getCostars(Long actorId, int limit) {
+        requireActor(actorId);
+        List<ActorGraph.Costar> costars = actorGraph.costars(actorId, limit);
+        Map<Long, Actor> actors = getActorsByIds(costars.stream().map(costar -> (long) costar.actorId()).toList());
+        return costars.stream()
+                .map(costar -> new CostarDTO((long) costar.actorId(), nameOf(actors.get((long) costar.actorId())),
+                                             costar.sharedMovies()))
+                .toList();
+    }
+
+    /**
+     * A shortest chain of actors from one actor to another in which each pair shares a
+     * movie, using at most {@code maxMovies} movies; empty when there is no such chain.
+     */
+    public Optional<List<CollaborationStepDTO>> getCollaborationPath(Long fromActorId, Long toActorId, int maxMovies) {
+        requireActor(fromActorId);
+        requireActor(toActorId);
+        int[] path = actorGraph.collaborationPath(fromActorId, toActorId, maxMovies);
+        if (path == null) {
+            return Optional.empty();
+        }
+
+        List<Long> actorIds = new ArrayList<>();
+        List<Long> movieIds = new ArrayList<>();
+        for (int i = 0; i < path.length; i++) {
+            (i % 2 == 0 ? actorIds : movieIds).add((long) path[i]);
+        }
+        Map<Long, Actor> actors = getActorsByIds(actorIds);
+        Map<Long, String> titles = movieRepository.findSummariesByIdIn(movieIds).stream()
+                .collect(Collectors.toMap(MovieSummaryDTO::getId, MovieSummaryDTO::getTitle));
+
+        List<CollaborationStepDTO> steps = new ArrayList<>(actorIds.size());
+        for (int i = 0; i < actorIds.size(); i++) {
+            Long movieId = i > 0 ? movieIds.get(i - 1) : null;
+            steps.add(new CollaborationStepDTO(actorIds.get(i), nameOf(actors.get(actorIds.get(i))),
+                                               movieId, movieId != null ? titles.get(movieId) : null));
+        }
+        return Optional.of(steps);
+    }
+
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.ACTORS_BY_ID, key = "#id"),
+        @CacheEvict(value = CacheConfig.ACTORS_BY_NAME, allEntries = true)
+    })
+    @Transactional
     public Optional<Actor> updateActor(Long id, Actor updatedActor) {
         Optional<Actor> existingActor = actorRepository.findById(id);
         if (existingActor.isEmpty()) {
@@ -63,6 +202,16 @@ public class ActorService {
         }
 
         Actor actorToUpdate = existingActor.get();
+        // Movies embed their actors' names and birth dates, so changing either also changes every
+        // linked movie: bumping their versions moves their updated_at forward for the movie deltas.
+        boolean shownInMovies = (updatedActor.getName() != null && !updatedActor.getName().equals(actorToUpdate.getName()))
+                || (updatedActor.getBirthDate() != null && !updatedActor.getBirthDate().equals(actorToUpdate.getBirthDate()));
+        if (shownInMovies) {
+            changeTracker.markChanged(CatalogChangeTracker.Table.ACTOR, CatalogChangeTracker.Table.MOVIE);
+            movieRepository.incrementVersionsByActor(id);
+        } else {
+            changeTracker.markChanged(CatalogChangeTracker.Table.ACTOR);
+        }
 
         if (updatedActor.getName() != null) {
             actorToUpdate.setName(updatedActor.getName());
@@ -74,28 +223,47 @@ public class ActorService {
             actorToUpdate.setMovies(updatedActor.getMovies());
         }
 
+        suggestionIndex.actorChanged(id, actorToUpdate.getName());
+        catalogReplica.actorChanged(actorToUpdate);
         return Optional.of(actorRepository.save(actorToUpdate));
     }
 
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.ACTORS_BY_ID, key = "#id"),
+        @CacheEvict(value = CacheConfig.ACTORS_BY_NAME, allEntries = true)
+    })
+    @Transactional
     public void deleteActor(Long id, boolean force) {
         Optional<Actor> actor = actorRepository.findById(id);
         if (actor.isEmpty()) {
             throw new ResourceNotFoundException("Actor with id " + id + " not found");
         }
 
-        Set<Movie> associatedActor = actor.get().getMovies();
-
-        if (!force && !associatedActor.isEmpty()) {
+        if (!force && movieRepository.existsByActors_Id(id)) {
             throw new IllegalStateException("Cannot delete actor '" + actor.get().getName() + 
-                                            "' because it has " + associatedActor.size() + " associated movies.");
+                                            "' because it has associated movies.");
         }
 
+        changeTracker.markChanged(CatalogChangeTracker.Table.ACTOR, CatalogChangeTracker.Table.MOVIE);
+        catalogStats.actorRemoved(id);
+        actorGraph.actorRemoved(id);
+        similarityIndex.actorRemoved(id);
+        suggestionIndex.actorRemoved(id);
+        catalogReplica.actorRemoved(id);
         if (force) {
-            for (Movie movie : associatedActor) {
-                movie.getActors().remove(actor.get());
-                movieRepository.save(movie);
-            }
+            movieRepository.incrementVersionsByActor(id);
+            movieRepository.unlinkActor(id);
+        }
+        actorRepository.bulkDeleteById(id);
+    }
+
+    private void requireActor(Long actorId) {
+        if (!actorRepository.existsById(actorId)) {
+            throw new ResourceNotFoundException("Actor with id " + actorId + " not found");
         }
-        actorRepository.deleteById(id);
+    }
+
+    private static String nameOf(Actor actor) {
+        return actor != null ? actor.getName() : null;
     }
 }
@@ -0,0 +1,59 @@
+package com.example.movies_api.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Defers changes to the in-memory indexes until the transaction that made them commits,
+ * so a rolled-back write never shows up in them. Outside a transaction changes apply at once.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static <T> boolean batch(Object owner, T change, Consumer<List<T>> apply) {
+        return batch(owner, change, apply, null);
+    }
+
+    /**
+     * Collects the changes an owner records during a transaction and hands them to {@code apply}
+     * in one list after commit; {@code onCompletion} runs once the transaction ends either way.
+     * Returns true for the first change of a transaction.
+     */
+    static <T> boolean batch(Object owner, T change, Consumer<List<T>> apply, Runnable onCompletion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.accept(List.of(change));
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        List<T> changes = (List<T>) TransactionSynchronizationManager.getResource(owner);
+        boolean first = changes == null;
+        if (first) {
+            List<T> transactionChanges = new ArrayList<>();
+            changes = transactionChanges;
+            TransactionSynchronizationManager.bindResource(owner, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            apply.accept(transactionChanges);
+                        }
+                    } finally {
+                        if (onCompletion != null) {
+                            onCompletion.run();
+                        }
+                    }
+                }
+            });
+        }
+        changes.add(change);
+        return first;
+    }
+}
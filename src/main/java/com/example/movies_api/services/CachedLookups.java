@@ -0,0 +1,60 @@
+package com.example.movies_api.services;
+
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves many keys against a lookup cache, loading every miss with a single
+ * query and writing the loaded values back into the cache.
+ */
+final class CachedLookups {
+
+    private CachedLookups() {
+    }
+
+    static <K, V> Map<K, V> resolveAll(Cache cache, Collection<K> keys,
+                                       Function<Collection<K>, ? extends Iterable<V>> loader,
+                                       Function<V, K> keyOf) {
+        Map<K, V> found = new LinkedHashMap<>();
+        List<K> misses = new ArrayList<>();
+
+        for (K key : new LinkedHashSet<>(keys)) {
+            Cache.ValueWrapper cached = cache != null ? cache.get(key) : null;
+            if (cached != null && cached.get() != null) {
+                @SuppressWarnings("unchecked")
+                V value = (V) cached.get();
+                found.put(key, value);
+            } else {
+                misses.add(key);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (V value : loader.apply(misses)) {
+                K key = keyOf.apply(value);
+                found.put(key, value);
+                if (cache != null) {
+                    cache.put(key, value);
+                }
+            }
+        }
+        return found;
+    }
+
+    static <K> List<K> missingKeys(Collection<K> requested, Map<K, ?> found) {
+        List<K> missing = new ArrayList<>();
+        for (K key : new LinkedHashSet<>(requested)) {
+            if (!found.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        return missing;
+    }
+}
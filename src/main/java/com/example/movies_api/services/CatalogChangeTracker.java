@@ -0,0 +1,62 @@
+package com.example.movies_api.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory change counters for the catalog tables, used to derive collection ETags
+ * without querying the database. A write bumps the counters of the tables it touches
+ * when it starts and again when its transaction completes, so a version read while the
+ * write is in flight is never current afterwards. Counters restart with the process;
+ * the epoch keeps versions handed out by an earlier process from matching.
+ *
+ * Components that react to committed writes register with {@link #onCommit(Runnable)}; the
+ * listeners run on the committing thread and must return quickly.
+ */
+@Component
+public class CatalogChangeTracker {
+
+    public enum Table { MOVIE, GENRE, ACTOR }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray counters = new AtomicLongArray(Table.values().length);
+    private final List<Runnable> commitListeners = new CopyOnWriteArrayList<>();
+
+    public void onCommit(Runnable listener) {
+        commitListeners.add(listener);
+    }
+
+    public void markChanged(Table... tables) {
+        bump(tables);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump(tables);
+                    if (status == STATUS_COMMITTED) {
+                        commitListeners.forEach(Runnable::run);
+                    }
+                }
+            });
+        }
+    }
+
+    public String version(Table... tables) {
+        StringBuilder version = new StringBuilder(epoch);
+        for (Table table : tables) {
+            version.append('.').append(counters.get(table.ordinal()));
+        }
+        return version.toString();
+    }
+
+    private void bump(Table[] tables) {
+        for (Table table : tables) {
+            counters.incrementAndGet(table.ordinal());
+        }
+    }
+}
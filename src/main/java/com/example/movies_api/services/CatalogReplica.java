@@ -0,0 +1,228 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Serves the catalog's reads from memory when {@code movies.catalog.in-memory} is set.
+ *
+ * The whole catalog is loaded into a {@link CatalogSnapshot} on a background thread once the
+ * application is ready; until then {@link #snapshot()} is null and the services read from
+ * SQLite as usual. Writes still go to SQLite. The services report every change, which is
+ * collected per transaction and applied after the commit to a copy of the current snapshot;
+ * the copy is then published with a single volatile write. The committing thread publishes
+ * before its request returns, so clients read their own writes.
+ */
+@Component
+public class CatalogReplica {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogReplica.class);
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final Object publishLock = new Object();
+
+    private volatile CatalogSnapshot current;
+    // Changes committed while the snapshot is being loaded, applied once it is in place.
+    private List<Consumer<CatalogSnapshot.Editor>> pending;
+
+    @Autowired
+    public CatalogReplica(@Value("${movies.catalog.in-memory}") boolean enabled, JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(this::load, "catalog-replica");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        synchronized (publishLock) {
+            pending = new ArrayList<>();
+        }
+
+        long started = System.nanoTime();
+        CatalogSnapshot loaded = readTransaction.execute(status -> read());
+
+        synchronized (publishLock) {
+            CatalogSnapshot.Editor editor = loaded.edit();
+            pending.forEach(change -> change.accept(editor));
+            pending = null;
+            current = editor.publish();
+        }
+        log.info("Catalog snapshot loaded with {} movies, {} actors and {} genres in {} ms",
+                loaded.movieCount(), loaded.actorCount(), loaded.genreCount(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * The latest published snapshot, or null while reads have to go to the database: when the
+     * replica is disabled or still loading.
+     */
+    public CatalogSnapshot snapshot() {
+        return current;
+    }
+
+    // Offset pages are served in id order, so sorted requests still go to the database.
+    public CatalogSnapshot snapshot(Pageable pageable) {
+        return pageable.getSort().isSorted() ? null : current;
+    }
+
+    public void movieChanged(Movie movie) {
+        int id = key(movie.getId());
+        String title = movie.getTitle();
+        int releaseYear = movie.getReleaseYear();
+        int duration = movie.getDuration();
+        int[] genreIds = keys(movie.getGenres().stream().map(Genre::getId).toList());
+        int[] actorIds = keys(movie.getActors().stream().map(Actor::getId).toList());
+        // The version is read after the commit, when the flush has incremented it.
+        record(editor -> editor.putMovie(id, title, releaseYear, duration, movie.getVersion(), genreIds, actorIds));
+    }
+
+    // Movies inserted without JPA start at version 0.
+    public void movieChanged(long movieId, String title, int releaseYear, int duration,
+                             Collection<Long> genreIds, Collection<Long> actorIds) {
+        int id = key(movieId);
+        int[] genres = keys(genreIds);
+        int[] actors = keys(actorIds);
+        record(editor -> editor.putMovie(id, title, releaseYear, duration, 0, genres, actors));
+    }
+
+    public void movieRemoved(long movieId) {
+        int id = key(movieId);
+        record(editor -> editor.removeMovie(id));
+    }
+
+    public void actorChanged(Actor actor) {
+        int id = key(actor.getId());
+        String name = actor.getName();
+        LocalDate birthDate = actor.getBirthDate();
+        record(editor -> editor.putActor(id, name, birthDate, actor.getVersion()));
+    }
+
+    public void actorRemoved(long actorId) {
+        int id = key(actorId);
+        record(editor -> editor.removeActor(id));
+    }
+
+    public void genreChanged(Genre genre) {
+        int id = key(genre.getId());
+        String name = genre.getName();
+        record(editor -> editor.putGenre(id, name, genre.getVersion()));
+    }
+
+    public void genreChanged(long genreId, String name) {
+        int id = key(genreId);
+        record(editor -> editor.putGenre(id, name, 0));
+    }
+
+    public void genreRemoved(long genreId) {
+        int id = key(genreId);
+        record(editor -> editor.removeGenre(id));
+    }
+
+    private void record(Consumer<CatalogSnapshot.Editor> change) {
+        if (enabled) {
+            AfterCommit.batch(this, change, this::apply);
+        }
+    }
+
+    private void apply(List<Consumer<CatalogSnapshot.Editor>> changes) {
+        synchronized (publishLock) {
+            if (pending != null) {
+                pending.addAll(changes);
+            } else if (current != null) {
+                CatalogSnapshot.Editor editor = current.edit();
+                changes.forEach(change -> change.accept(editor));
+                current = editor.publish();
+            }
+        }
+    }
+
+    // Reads the tables with plain JDBC, deduplicating titles and names as they come in.
+    private CatalogSnapshot read() {
+        CatalogSnapshot.Editor loader = CatalogSnapshot.loader();
+        Map<String, String> strings = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, version FROM genre", rs -> {
+            loader.putGenre(key(rs.getLong(1)), rs.getString(2), rs.getLong(3));
+        });
+        jdbcTemplate.query("SELECT id, name, birth_date, version FROM actor", rs -> {
+            Date birthDate = rs.getDate(3);
+            loader.putActor(key(rs.getLong(1)), strings.computeIfAbsent(rs.getString(2), name -> name),
+                    birthDate != null ? birthDate.toLocalDate() : null, rs.getLong(4));
+        });
+        int[] none = new int[0];
+        jdbcTemplate.query("SELECT id, title, release_year, duration, version FROM movie", rs -> {
+            loader.putMovie(key(rs.getLong(1)), strings.computeIfAbsent(rs.getString(2), title -> title),
+                    rs.getInt(3), rs.getInt(4), rs.getLong(5), none, none);
+        });
+        strings.clear();
+        readLinks("SELECT movie_id, genre_id FROM movie_genre ORDER BY movie_id", loader::linkGenres);
+        readLinks("SELECT movie_id, actor_id FROM movie_actor ORDER BY movie_id", loader::linkActors);
+        return loader.publish();
+    }
+
+    // Passes the ids in the second column to the consumer, grouped by the first.
+    private void readLinks(String sql, BiConsumer<Integer, int[]> consumer) {
+        int[] movie = {-1};
+        int[] size = {0};
+        int[][] ids = {new int[8]};
+        jdbcTemplate.query(sql, rs -> {
+            int owner = key(rs.getLong(1));
+            if (owner != movie[0]) {
+                if (movie[0] >= 0) {
+                    consumer.accept(movie[0], Arrays.copyOf(ids[0], size[0]));
+                }
+                movie[0] = owner;
+                size[0] = 0;
+            }
+            if (size[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], size[0] * 2);
+            }
+            ids[0][size[0]++] = key(rs.getLong(2));
+        });
+        if (movie[0] >= 0) {
+            consumer.accept(movie[0], Arrays.copyOf(ids[0], size[0]));
+        }
+    }
+
+    private static int[] keys(Collection<Long> ids) {
+        return ids.stream().mapToInt(CatalogReplica::key).toArray();
+    }
+
+    private static int key(long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,937 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.MovieSummaryDTO;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+/**
+ * One immutable version of the whole catalog, published by {@link CatalogReplica}.
+ *
+ * Rows are addressed by id: the high bits pick a page, the low {@link #PAGE_BITS} a slot in
+ * it. A movie page is a set of parallel column arrays (titles, release years, durations,
+ * versions) with the movies' genre and actor ids packed into one int array per page. Actors,
+ * genres and release years keep the ids of their movies as sorted int arrays. A new version
+ * copies only the pages and lists that a write touches and shares everything else with the
+ * previous one, so readers never lock and never see half of a write.
+ */
+public final class CatalogSnapshot {
+
+    static final int PAGE_BITS = 10;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int SLOT_MASK = PAGE_SIZE - 1;
+    private static final int[] NONE = new int[0];
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, new MoviePage[0], new NamedPage[0], new NamedPage[0],
+            0, 0, 0, NONE, new int[0][]);
+
+    private final long version;
+    private final MoviePage[] movies;
+    private final NamedPage[] actors;
+    private final NamedPage[] genres;
+    private final int movieCount;
+    private final int actorCount;
+    private final int genreCount;
+    // Release years that have movies, ascending, and the ids of each year's movies.
+    private final int[] years;
+    private final int[][] yearMovies;
+
+    private CatalogSnapshot(long version, MoviePage[] movies, NamedPage[] actors, NamedPage[] genres,
+                            int movieCount, int actorCount, int genreCount, int[] years, int[][] yearMovies) {
+        this.version = version;
+        this.movies = movies;
+        this.actors = actors;
+        this.genres = genres;
+        this.movieCount = movieCount;
+        this.actorCount = actorCount;
+        this.genreCount = genreCount;
+        this.years = years;
+        this.yearMovies = yearMovies;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int movieCount() {
+        return movieCount;
+    }
+
+    public int actorCount() {
+        return actorCount;
+    }
+
+    public int genreCount() {
+        return genreCount;
+    }
+
+    Editor edit() {
+        return new Editor(this, false);
+    }
+
+    // An editor for a snapshot loaded row by row, which links movies to their actors, genres
+    // and release years in one pass when published instead of tracking every change.
+    static Editor loader() {
+        return new Editor(EMPTY, true);
+    }
+
+    public Optional<Movie> movie(long id) {
+        return hasMovie(id) ? Optional.of(movieAt((int) id)) : Optional.empty();
+    }
+
+    public Optional<Long> movieVersion(long id) {
+        return hasMovie(id) ? Optional.of(movies[(int) id >>> PAGE_BITS].versions[(int) id & SLOT_MASK]) : Optional.empty();
+    }
+
+    public Optional<Actor> actor(long id) {
+        return has(actors, id) ? Optional.of(actorAt((int) id)) : Optional.empty();
+    }
+
+    public Optional<Genre> genre(long id) {
+        return has(genres, id) ? Optional.of(genreAt((int) id)) : Optional.empty();
+    }
+
+    public Movie movieAt(int id) {
+        MoviePage page = movies[id >>> PAGE_BITS];
+        int slot = id & SLOT_MASK;
+        Movie movie = new Movie(page.titles[slot], page.releaseYears[slot], page.durations[slot]);
+        movie.setId((long) id);
+        movie.setVersion(page.versions[slot]);
+        Set<Genre> movieGenres = new LinkedHashSet<>();
+        for (int i = page.genreStart[slot]; i < page.genreStart[slot + 1]; i++) {
+            if (has(genres, page.genreIds[i])) {
+                movieGenres.add(genreAt(page.genreIds[i]));
+            }
+        }
+        Set<Actor> movieActors = new LinkedHashSet<>();
+        for (int i = page.actorStart[slot]; i < page.actorStart[slot + 1]; i++) {
+            if (has(actors, page.actorIds[i])) {
+                movieActors.add(actorAt(page.actorIds[i]));
+            }
+        }
+        movie.setGenres(movieGenres);
+        movie.setActors(movieActors);
+        return movie;
+    }
+
+    public MovieSummaryDTO summaryAt(int id) {
+        MoviePage page = movies[id >>> PAGE_BITS];
+        int slot = id & SLOT_MASK;
+        return new MovieSummaryDTO((long) id, page.titles[slot], page.releaseYears[slot], page.durations[slot]);
+    }
+
+    private Actor actorAt(int id) {
+        NamedPage page = actors[id >>> PAGE_BITS];
+        int slot = id & SLOT_MASK;
+        int birthDay = page.birthDays[slot];
+        Actor actor = new Actor(page.names[slot], birthDay == NO_DATE ? null : LocalDate.ofEpochDay(birthDay));
+        actor.setId((long) id);
+        actor.setVersion(page.versions[slot]);
+        return actor;
+    }
+
+    private Genre genreAt(int id) {
+        NamedPage page = genres[id >>> PAGE_BITS];
+        int slot = id & SLOT_MASK;
+        Genre genre = new Genre(page.names[slot]);
+        genre.setId((long) id);
+        genre.setVersion(page.versions[slot]);
+        return genre;
+    }
+
+    public <T> Slice<T> moviesAfter(long afterId, int size, IntFunction<T> row) {
+        return slice(after(movies, afterId, size + 1), size, row);
+    }
+
+    // Movies ordered by release year and id, starting after the given pair.
+    public <T> Slice<T> moviesAfterReleaseYear(int releaseYear, long afterId, int size, IntFunction<T> row) {
+        IntList ids = new IntList(Math.min(size + 1, 64));
+        int year = Arrays.binarySearch(years, releaseYear);
+        for (int i = year >= 0 ? year : -year - 1; i < years.length && ids.size <= size; i++) {
+            int[] list = yearMovies[i];
+            for (int j = years[i] == releaseYear ? firstAbove(list, afterId) : 0; j < list.length && ids.size <= size; j++) {
+                ids.add(list[j]);
+            }
+        }
+        return slice(ids.toArray(), size, row);
+    }
+
+    public <T> Optional<Slice<T>> moviesByGenreAfter(long genreId, long afterId, int size, IntFunction<T> row) {
+        int[] list = moviesOf(genres, genreId);
+        return list == null ? Optional.empty() : Optional.of(slice(after(list, afterId, size + 1), size, row));
+    }
+
+    public <T> Optional<Slice<T>> moviesByActorAfter(long actorId, long afterId, int size, IntFunction<T> row) {
+        int[] list = moviesOf(actors, actorId);
+        return list == null ? Optional.empty() : Optional.of(slice(after(list, afterId, size + 1), size, row));
+    }
+
+    public <T> Slice<T> moviesByReleaseYearAfter(int releaseYear, long afterId, int size, IntFunction<T> row) {
+        return slice(after(moviesOfYear(releaseYear), afterId, size + 1), size, row);
+    }
+
+    public Page<Movie> movies(Pageable pageable) {
+        return movies(pageable, this::movieAt);
+    }
+
+    public <T> Page<T> movies(Pageable pageable, IntFunction<T> row) {
+        return page(range(movies, pageable), pageable, movieCount, row);
+    }
+
+    public Optional<Page<Movie>> moviesByGenre(long genreId, Pageable pageable) {
+        return moviesByGenre(genreId, pageable, this::movieAt);
+    }
+
+    public <T> Optional<Page<T>> moviesByGenre(long genreId, Pageable pageable, IntFunction<T> row) {
+        int[] list = moviesOf(genres, genreId);
+        return list == null ? Optional.empty() : Optional.of(page(range(list, pageable), pageable, list.length, row));
+    }
+
+    public Optional<Page<Movie>> moviesByActor(long actorId, Pageable pageable) {
+        return moviesByActor(actorId, pageable, this::movieAt);
+    }
+
+    public <T> Optional<Page<T>> moviesByActor(long actorId, Pageable pageable, IntFunction<T> row) {
+        int[] list = moviesOf(actors, actorId);
+        return list == null ? Optional.empty() : Optional.of(page(range(list, pageable), pageable, list.length, row));
+    }
+
+    public Page<Movie> moviesByReleaseYear(int releaseYear, Pageable pageable) {
+        return moviesByReleaseYear(releaseYear, pageable, this::movieAt);
+    }
+
+    public <T> Page<T> moviesByReleaseYear(int releaseYear, Pageable pageable, IntFunction<T> row) {
+        int[] list = moviesOfYear(releaseYear);
+        return page(range(list, pageable), pageable, list.length, row);
+    }
+
+    public Optional<Page<Actor>> actorsByMovie(long movieId, Pageable pageable) {
+        if (!hasMovie(movieId)) {
+            return Optional.empty();
+        }
+        MoviePage page = movies[(int) movieId >>> PAGE_BITS];
+        int slot = (int) movieId & SLOT_MASK;
+        IntList cast = new IntList(page.actorStart[slot + 1] - page.actorStart[slot]);
+        for (int i = page.actorStart[slot]; i < page.actorStart[slot + 1]; i++) {
+            if (has(actors, page.actorIds[i])) {
+                cast.add(page.actorIds[i]);
+            }
+        }
+        int[] list = cast.toArray();
+        return Optional.of(page(range(list, pageable), pageable, list.length, this::actorAt));
+    }
+
+    public Page<Actor> actors(Pageable pageable) {
+        return page(range(actors, pageable), pageable, actorCount, this::actorAt);
+    }
+
+    public Slice<Actor> actorsAfter(long afterId, int size) {
+        return slice(after(actors, afterId, size + 1), size, this::actorAt);
+    }
+
+    public Page<Genre> genres(Pageable pageable) {
+        return page(range(genres, pageable), pageable, genreCount, this::genreAt);
+    }
+
+    public Slice<Genre> genresAfter(long afterId, int size) {
+        return slice(after(genres, afterId, size + 1), size, this::genreAt);
+    }
+
+    private boolean hasMovie(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int page = (int) id >>> PAGE_BITS;
+        return page < movies.length && movies[page] != null && movies[page].has((int) id & SLOT_MASK);
+    }
+
+    private static boolean has(NamedPage[] pages, long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int page = (int) id >>> PAGE_BITS;
+        return page < pages.length && pages[page] != null && pages[page].has((int) id & SLOT_MASK);
+    }
+
+    private static int[] moviesOf(NamedPage[] pages, long id) {
+        return has(pages, id) ? pages[(int) id >>> PAGE_BITS].movies[(int) id & SLOT_MASK] : null;
+    }
+
+    private int[] moviesOfYear(int releaseYear) {
+        int year = Arrays.binarySearch(years, releaseYear);
+        return year >= 0 ? yearMovies[year] : NONE;
+    }
+
+    private static <T> Slice<T> slice(int[] ids, int size, IntFunction<T> row) {
+        List<T> content = new ArrayList<>(Math.min(ids.length, size));
+        for (int i = 0; i < ids.length && i < size; i++) {
+            content.add(row.apply(ids[i]));
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size), ids.length > size);
+    }
+
+    private static <T> Page<T> page(int[] ids, Pageable pageable, long total, IntFunction<T> row) {
+        List<T> content = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            content.add(row.apply(id));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // Up to limit ids of the rows after afterId, ascending.
+    private static int[] after(Rows[] pages, long afterId, int limit) {
+        IntList ids = new IntList(Math.min(limit, 64));
+        long start = Math.max(afterId + 1, 0);
+        if (start > Integer.MAX_VALUE) {
+            return NONE;
+        }
+        int first = (int) start;
+        for (int page = first >>> PAGE_BITS; page < pages.length && ids.size < limit; page++) {
+            Rows rows = pages[page];
+            if (rows == null || rows.count() == 0) {
+                continue;
+            }
+            for (int slot = page == first >>> PAGE_BITS ? first & SLOT_MASK : 0; slot < PAGE_SIZE && ids.size < limit; slot++) {
+                if (rows.has(slot)) {
+                    ids.add(page << PAGE_BITS | slot);
+                }
+            }
+        }
+        return ids.toArray();
+    }
+
+    private static int[] after(int[] list, long afterId, int limit) {
+        int from = firstAbove(list, afterId);
+        return Arrays.copyOfRange(list, from, (int) Math.min(list.length, (long) from + limit));
+    }
+
+    // The rows of an offset page, skipping whole pages by their row counts.
+    private static int[] range(Rows[] pages, Pageable pageable) {
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        IntList ids = new IntList(Math.min(limit, 64));
+        for (int page = 0; page < pages.length && ids.size < limit; page++) {
+            Rows rows = pages[page];
+            if (rows == null) {
+                continue;
+            }
+            if (skip >= rows.count()) {
+                skip -= rows.count();
+                continue;
+            }
+            for (int slot = 0; slot < PAGE_SIZE && ids.size < limit; slot++) {
+                if (rows.has(slot) && skip-- <= 0) {
+                    ids.add(page << PAGE_BITS | slot);
+                }
+            }
+        }
+        return ids.toArray();
+    }
+
+    private static int[] range(int[] list, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return list;
+        }
+        long from = Math.min(pageable.getOffset(), list.length);
+        return Arrays.copyOfRange(list, (int) from, (int) Math.min(list.length, from + pageable.getPageSize()));
+    }
+
+    private static int firstAbove(int[] list, long id) {
+        if (id >= Integer.MAX_VALUE) {
+            return list.length;
+        }
+        int found = Arrays.binarySearch(list, (int) Math.max(id, -1) + 1);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    private interface Rows {
+        int count();
+
+        boolean has(int slot);
+    }
+
+    private static final class MoviePage implements Rows {
+        private final int count;
+        private final String[] titles;
+        private final int[] releaseYears;
+        private final int[] durations;
+        private final long[] versions;
+        // The genres of slot i are genreIds[genreStart[i]] to genreIds[genreStart[i + 1] - 1], sorted;
+        // actors likewise.
+        private final int[] genreStart;
+        private final int[] genreIds;
+        private final int[] actorStart;
+        private final int[] actorIds;
+
+        private MoviePage(MovieRows rows) {
+            count = rows.count;
+            titles = rows.titles;
+            releaseYears = rows.releaseYears;
+            durations = rows.durations;
+            versions = rows.versions;
+            genreStart = new int[PAGE_SIZE + 1];
+            genreIds = pack(rows.genres, genreStart);
+            actorStart = new int[PAGE_SIZE + 1];
+            actorIds = pack(rows.actors, actorStart);
+        }
+
+        private static int[] pack(int[][] links, int[] start) {
+            int total = 0;
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                start[slot] = total;
+                total += links[slot].length;
+            }
+            start[PAGE_SIZE] = total;
+            int[] packed = new int[total];
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                System.arraycopy(links[slot], 0, packed, start[slot], links[slot].length);
+            }
+            return packed;
+        }
+
+        private int[] genres(int slot) {
+            return Arrays.copyOfRange(genreIds, genreStart[slot], genreStart[slot + 1]);
+        }
+
+        private int[] actors(int slot) {
+            return Arrays.copyOfRange(actorIds, actorStart[slot], actorStart[slot + 1]);
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public boolean has(int slot) {
+            return titles[slot] != null;
+        }
+    }
+
+    // A movie page being edited, with the links of every slot in an array of its own.
+    private static final class MovieRows {
+        private int count;
+        private final String[] titles;
+        private final int[] releaseYears;
+        private final int[] durations;
+        private final long[] versions;
+        private final int[][] genres = new int[PAGE_SIZE][];
+        private final int[][] actors = new int[PAGE_SIZE][];
+
+        private MovieRows(MoviePage page) {
+            if (page == null) {
+                titles = new String[PAGE_SIZE];
+                releaseYears = new int[PAGE_SIZE];
+                durations = new int[PAGE_SIZE];
+                versions = new long[PAGE_SIZE];
+                Arrays.fill(genres, NONE);
+                Arrays.fill(actors, NONE);
+                return;
+            }
+            count = page.count;
+            titles = page.titles.clone();
+            releaseYears = page.releaseYears.clone();
+            durations = page.durations.clone();
+            versions = page.versions.clone();
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                genres[slot] = page.genres(slot);
+                actors[slot] = page.actors(slot);
+            }
+        }
+    }
+
+    // A page of actors or genres; genres have no birth dates. Pages are only written by the
+    // editor that created or copied them.
+    private static final class NamedPage implements Rows {
+        private int count;
+        private final String[] names;
+        private final long[] versions;
+        private final int[] birthDays;
+        private final int[][] movies;
+
+        private NamedPage(boolean withBirthDays) {
+            names = new String[PAGE_SIZE];
+            versions = new long[PAGE_SIZE];
+            birthDays = withBirthDays ? new int[PAGE_SIZE] : null;
+            movies = new int[PAGE_SIZE][];
+        }
+
+        private NamedPage(NamedPage page) {
+            count = page.count;
+            names = page.names.clone();
+            versions = page.versions.clone();
+            birthDays = page.birthDays != null ? page.birthDays.clone() : null;
+            movies = page.movies.clone();
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public boolean has(int slot) {
+            return names[slot] != null;
+        }
+    }
+
+    private record Original(boolean present, int releaseYear, int[] genres, int[] actors) {
+    }
+
+    /**
+     * Builds the next version of a snapshot. Pages are copied on their first write; the link
+     * lists of actors, genres and years are brought up to date on {@link #publish()} from the
+     * movies whose links changed. Not thread-safe: the replica edits under its publish lock.
+     */
+    static final class Editor {
+        private final CatalogSnapshot base;
+        private final boolean rebuild;
+        private final Map<Integer, MovieRows> movieRows = new HashMap<>();
+        private final Set<NamedPage> ownedPages = Collections.newSetFromMap(new IdentityHashMap<>());
+        // Movies changed in this edit with their links as of the base snapshot.
+        private final Map<Integer, Original> touched = new HashMap<>();
+        private NamedPage[] actorPages;
+        private NamedPage[] genrePages;
+        private int movieCount;
+        private int actorCount;
+        private int genreCount;
+
+        private Editor(CatalogSnapshot base, boolean rebuild) {
+            this.base = base;
+            this.rebuild = rebuild;
+            this.actorPages = base.actors.clone();
+            this.genrePages = base.genres.clone();
+            this.movieCount = base.movieCount;
+            this.actorCount = base.actorCount;
+            this.genreCount = base.genreCount;
+        }
+
+        // Writes that committed out of order are recognised by their older version and dropped.
+        void putMovie(int id, String title, int releaseYear, int duration, long version, int[] genreIds, int[] actorIds) {
+            MovieRows rows = movieRows(id, true);
+            int slot = id & SLOT_MASK;
+            if (rows.titles[slot] != null && version < rows.versions[slot]) {
+                return;
+            }
+            touch(id, rows, slot);
+            if (rows.titles[slot] == null) {
+                rows.count++;
+                movieCount++;
+            }
+            rows.titles[slot] = title;
+            rows.releaseYears[slot] = releaseYear;
+            rows.durations[slot] = duration;
+            rows.versions[slot] = version;
+            rows.genres[slot] = sorted(genreIds);
+            rows.actors[slot] = sorted(actorIds);
+        }
+
+        void removeMovie(int id) {
+            MovieRows rows = movieRows(id, false);
+            int slot = id & SLOT_MASK;
+            if (rows == null || rows.titles[slot] == null) {
+                return;
+            }
+            touch(id, rows, slot);
+            rows.count--;
+            movieCount--;
+            rows.titles[slot] = null;
+            rows.genres[slot] = NONE;
+            rows.actors[slot] = NONE;
+        }
+
+        // Loading only: sets the links of a movie that was put earlier.
+        void linkGenres(int id, int[] genreIds) {
+            MovieRows rows = movieRows(id, false);
+            if (rows != null && rows.titles[id & SLOT_MASK] != null) {
+                rows.genres[id & SLOT_MASK] = sorted(genreIds);
+            }
+        }
+
+        void linkActors(int id, int[] actorIds) {
+            MovieRows rows = movieRows(id, false);
+            if (rows != null && rows.titles[id & SLOT_MASK] != null) {
+                rows.actors[id & SLOT_MASK] = sorted(actorIds);
+            }
+        }
+
+        void putActor(int id, String name, LocalDate birthDate, long version) {
+            actorPages = grow(actorPages, id);
+            NamedPage page = own(actorPages, id, true);
+            int slot = id & SLOT_MASK;
+            if (page.names[slot] != null && version < page.versions[slot]) {
+                return;
+            }
+            if (page.names[slot] == null) {
+                page.count++;
+                actorCount++;
+                page.movies[slot] = NONE;
+            }
+            page.names[slot] = name;
+            page.versions[slot] = version;
+            page.birthDays[slot] = birthDate != null ? Math.toIntExact(birthDate.toEpochDay()) : NO_DATE;
+        }
+
+        // Deleting an actor unlinks it from its movies and increments their versions, as the
+        // force delete does in the database.
+        void removeActor(int id) {
+            if (!has(actorPages, id)) {
+                return;
+            }
+            for (int movie : linkedMovies(actorPages, id, true)) {
+                MovieRows rows = movieRows(movie, false);
+                int slot = movie & SLOT_MASK;
+                touch(movie, rows, slot);
+                rows.actors[slot] = without(rows.actors[slot], id);
+                rows.versions[slot]++;
+            }
+            NamedPage page = own(actorPages, id, true);
+            page.count--;
+            actorCount--;
+            page.names[id & SLOT_MASK] = null;
+            page.movies[id & SLOT_MASK] = null;
+        }
+
+        void putGenre(int id, String name, long version) {
+            genrePages = grow(genrePages, id);
+            NamedPage page = own(genrePages, id, false);
+            int slot = id & SLOT_MASK;
+            if (page.names[slot] != null && version < page.versions[slot]) {
+                return;
+            }
+            if (page.names[slot] == null) {
+                page.count++;
+                genreCount++;
+                page.movies[slot] = NONE;
+            }
+            page.names[slot] = name;
+            page.versions[slot] = version;
+        }
+
+        void removeGenre(int id) {
+            if (!has(genrePages, id)) {
+                return;
+            }
+            for (int movie : linkedMovies(genrePages, id, false)) {
+                MovieRows rows = movieRows(movie, false);
+                int slot = movie & SLOT_MASK;
+                touch(movie, rows, slot);
+                rows.genres[slot] = without(rows.genres[slot], id);
+                rows.versions[slot]++;
+            }
+            NamedPage page = own(genrePages, id, false);
+            page.count--;
+            genreCount--;
+            page.names[id & SLOT_MASK] = null;
+            page.movies[id & SLOT_MASK] = null;
+        }
+
+        CatalogSnapshot publish() {
+            int pageCount = base.movies.length;
+            for (int page : movieRows.keySet()) {
+                pageCount = Math.max(pageCount, page + 1);
+            }
+            MoviePage[] moviePages = Arrays.copyOf(base.movies, pageCount);
+            movieRows.forEach((page, rows) -> moviePages[page] = rows.count == 0 ? null : new MoviePage(rows));
+
+            int[] years;
+            int[][] yearMovies;
+            if (rebuild) {
+                TreeMap<Integer, int[]> byYear = linkAll(moviePages);
+                years = byYear.keySet().stream().mapToInt(Integer::intValue).toArray();
+                yearMovies = byYear.values().toArray(new int[0][]);
+            } else {
+                TreeMap<Integer, int[]> byYear = new TreeMap<>();
+                for (int i = 0; i < base.years.length; i++) {
+                    byYear.put(base.years[i], base.yearMovies[i]);
+                }
+                relink(byYear);
+                byYear.values().removeIf(list -> list.length == 0);
+                years = byYear.keySet().stream().mapToInt(Integer::intValue).toArray();
+                yearMovies = byYear.values().toArray(new int[0][]);
+            }
+            return new CatalogSnapshot(base.version + 1, moviePages, actorPages, genrePages,
+                    movieCount, actorCount, genreCount, years, yearMovies);
+        }
+
+        private MovieRows movieRows(int id, boolean create) {
+            int page = id >>> PAGE_BITS;
+            MovieRows rows = movieRows.get(page);
+            if (rows == null) {
+                MoviePage current = page < base.movies.length ? base.movies[page] : null;
+                if (current == null && !create) {
+                    return null;
+                }
+                rows = new MovieRows(current);
+                movieRows.put(page, rows);
+            }
+            return rows;
+        }
+
+        private void touch(int id, MovieRows rows, int slot) {
+            if (!rebuild && !touched.containsKey(id)) {
+                touched.put(id, new Original(rows.titles[slot] != null, rows.releaseYears[slot],
+                        rows.genres[slot], rows.actors[slot]));
+            }
+        }
+
+        private NamedPage own(NamedPage[] pages, int id, boolean withBirthDays) {
+            int page = id >>> PAGE_BITS;
+            NamedPage current = pages[page];
+            if (current == null || !ownedPages.contains(current)) {
+                current = current == null ? new NamedPage(withBirthDays) : new NamedPage(current);
+                pages[page] = current;
+                ownedPages.add(current);
+            }
+            return current;
+        }
+
+        private static NamedPage[] grow(NamedPage[] pages, int id) {
+            int page = id >>> PAGE_BITS;
+            return page < pages.length ? pages : Arrays.copyOf(pages, Math.max(page + 1, pages.length * 2));
+        }
+
+        // The movies linked to an actor or genre: those in its list as of the base snapshot and
+        // those linked to it in this edit.
+        private int[] linkedMovies(NamedPage[] pages, int id, boolean actor) {
+            IntList linked = new IntList(16);
+            for (int movie : pages[id >>> PAGE_BITS].movies[id & SLOT_MASK]) {
+                linked.add(movie);
+            }
+            for (int movie : touched.keySet()) {
+                linked.add(movie);
+            }
+            IntList result = new IntList(linked.size);
+            for (int movie : linked.sortedDistinct()) {
+                MovieRows rows = movieRows(movie, false);
+                int slot = movie & SLOT_MASK;
+                if (rows != null && rows.titles[slot] != null
+                        && Arrays.binarySearch(actor ? rows.actors[slot] : rows.genres[slot], id) >= 0) {
+                    result.add(movie);
+                }
+            }
+            return result.toArray();
+        }
+
+        // Applies the link changes of the touched movies to the lists of their actors, genres and years.
+        private void relink(TreeMap<Integer, int[]> byYear) {
+            Map<Integer, Changes> genreChanges = new HashMap<>();
+            Map<Integer, Changes> actorChanges = new HashMap<>();
+            Map<Integer, Changes> yearChanges = new HashMap<>();
+            touched.forEach((movie, before) -> {
+                MovieRows rows = movieRows.get(movie >>> PAGE_BITS);
+                int slot = movie & SLOT_MASK;
+                boolean present = rows.titles[slot] != null;
+                diff(before.present ? before.genres : NONE, present ? rows.genres[slot] : NONE, movie, genreChanges);
+                diff(before.present ? before.actors : NONE, present ? rows.actors[slot] : NONE, movie, actorChanges);
+                boolean sameYear = before.present && present && before.releaseYear == rows.releaseYears[slot];
+                if (before.present && !sameYear) {
+                    yearChanges.computeIfAbsent(before.releaseYear, year -> new Changes()).removed.add(movie);
+                }
+                if (present && !sameYear) {
+                    yearChanges.computeIfAbsent(rows.releaseYears[slot], year -> new Changes()).added.add(movie);
+                }
+            });
+            genreChanges.forEach((genre, changes) -> {
+                if (has(genrePages, genre)) {
+                    NamedPage page = own(genrePages, genre, false);
+                    page.movies[genre & SLOT_MASK] = changes.applyTo(page.movies[genre & SLOT_MASK]);
+                }
+            });
+            actorChanges.forEach((actor, changes) -> {
+                if (has(actorPages, actor)) {
+                    NamedPage page = own(actorPages, actor, true);
+                    page.movies[actor & SLOT_MASK] = changes.applyTo(page.movies[actor & SLOT_MASK]);
+                }
+            });
+            yearChanges.forEach((year, changes) -> byYear.put(year, changes.applyTo(byYear.getOrDefault(year, NONE))));
+        }
+
+        // Links every movie to its actors, genres and year in two passes: count, then fill. Movies
+        // are visited in id order, so every list comes out sorted.
+        private TreeMap<Integer, int[]> linkAll(MoviePage[] moviePages) {
+            int[] genreLinks = new int[genrePages.length * PAGE_SIZE];
+            int[] actorLinks = new int[actorPages.length * PAGE_SIZE];
+            TreeMap<Integer, int[]> yearLinks = new TreeMap<>();
+            for (MoviePage page : moviePages) {
+                if (page == null) {
+                    continue;
+                }
+                for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                    if (page.has(slot)) {
+                        yearLinks.computeIfAbsent(page.releaseYears[slot], year -> new int[1])[0]++;
+                    }
+                }
+                count(page.genreIds, genreLinks);
+                count(page.actorIds, actorLinks);
+            }
+
+            TreeMap<Integer, int[]> byYear = new TreeMap<>();
+            yearLinks.forEach((year, count) -> byYear.put(year, new int[count[0]]));
+            allocate(genrePages, genreLinks);
+            allocate(actorPages, actorLinks);
+            Map<Integer, int[]> yearFill = new HashMap<>();
+            for (int p = 0; p < moviePages.length; p++) {
+                MoviePage page = moviePages[p];
+                if (page == null) {
+                    continue;
+                }
+                for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                    if (!page.has(slot)) {
+                        continue;
+                    }
+                    int movie = p << PAGE_BITS | slot;
+                    int year = page.releaseYears[slot];
+                    byYear.get(year)[yearFill.computeIfAbsent(year, y -> new int[1])[0]++] = movie;
+                    fill(genrePages, genreLinks, page.genreIds, page.genreStart[slot], page.genreStart[slot + 1], movie);
+                    fill(actorPages, actorLinks, page.actorIds, page.actorStart[slot], page.actorStart[slot + 1], movie);
+                }
+            }
+            return byYear;
+        }
+
+        private static void count(int[] ids, int[] counts) {
+            for (int id : ids) {
+                if (id < counts.length) {
+                    counts[id]++;
+                }
+            }
+        }
+
+        // Gives every row its movie array; counts are reused as fill positions from here on.
+        private static void allocate(NamedPage[] pages, int[] counts) {
+            for (int id = 0; id < counts.length; id++) {
+                NamedPage page = pages[id >>> PAGE_BITS];
+                if (page != null && page.has(id & SLOT_MASK)) {
+                    page.movies[id & SLOT_MASK] = counts[id] == 0 ? NONE : new int[counts[id]];
+                }
+                counts[id] = 0;
+            }
+        }
+
+        private static void fill(NamedPage[] pages, int[] positions, int[] ids, int from, int to, int movie) {
+            for (int i = from; i < to; i++) {
+                int id = ids[i];
+                if (has(pages, id)) {
+                    pages[id >>> PAGE_BITS].movies[id & SLOT_MASK][positions[id]++] = movie;
+                }
+            }
+        }
+
+        private static void diff(int[] before, int[] after, int movie, Map<Integer, Changes> changes) {
+            for (int id : before) {
+                if (Arrays.binarySearch(after, id) < 0) {
+                    changes.computeIfAbsent(id, key -> new Changes()).removed.add(movie);
+                }
+            }
+            for (int id : after) {
+                if (Arrays.binarySearch(before, id) < 0) {
+                    changes.computeIfAbsent(id, key -> new Changes()).added.add(movie);
+                }
+            }
+        }
+
+        private static int[] sorted(int[] ids) {
+            return ids.length == 0 ? NONE : IntList.of(ids).sortedDistinct();
+        }
+
+        private static int[] without(int[] ids, int id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return ids;
+            }
+            int[] result = new int[ids.length - 1];
+            System.arraycopy(ids, 0, result, 0, index);
+            System.arraycopy(ids, index + 1, result, index, result.length - index);
+            return result;
+        }
+    }
+
+    // Movies added to and removed from one sorted list.
+    private static final class Changes {
+        private final IntList added = new IntList(4);
+        private final IntList removed = new IntList(4);
+
+        private int[] applyTo(int[] list) {
+            int[] add = added.sortedDistinct();
+            int[] remove = removed.sortedDistinct();
+            int[] result = new int[list.length + add.length];
+            int size = 0;
+            int j = 0;
+            for (int movie : list) {
+                while (j < add.length && add[j] < movie) {
+                    result[size++] = add[j++];
+                }
+                if (j < add.length && add[j] == movie) {
+                    j++;
+                }
+                if (Arrays.binarySearch(remove, movie) < 0) {
+                    result[size++] = movie;
+                }
+            }
+            while (j < add.length) {
+                result[size++] = add[j++];
+            }
+            return size == result.length ? result : Arrays.copyOf(result, size);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values;
+        private int size;
+
+        private IntList(int capacity) {
+            values = new int[Math.max(capacity, 1)];
+        }
+
+        private static IntList of(int[] values) {
+            IntList list = new IntList(0);
+            list.values = values.clone();
+            list.size = values.length;
+            return list;
+        }
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        private int[] sortedDistinct() {
+            Arrays.sort(values, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || values[i] != values[distinct - 1]) {
+                    values[distinct++] = values[i];
+                }
+            }
+            return Arrays.copyOf(values, distinct);
+        }
+    }
+}
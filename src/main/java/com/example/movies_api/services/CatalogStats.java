@@ -0,0 +1,337 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.CatalogStatsDTO;
+import com.example.movies_api.dto.MovieGroupStatsDTO;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Movie counts and total durations per genre, actor and release year, kept in memory
+ * and updated by the services on every write, so /api/stats never reads the movie table.
+ *
+ * Changes are collected per transaction and applied after it commits. The aggregates are
+ * checkpointed to SQLite periodically and on shutdown and loaded from there on startup.
+ * Every write transaction clears the checkpoint's valid flag, so a checkpoint that misses
+ * a committed write (after a crash) is never loaded; the aggregates are rebuilt instead.
+ */
+@Component
+public class CatalogStats {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStats.class);
+
+    private static final String GENRE = "genre";
+    private static final String ACTOR = "actor";
+    private static final String YEAR = "year";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counters byGenre = new Counters();
+    private final Counters byActor = new Counters();
+    private final Counters byYear = new Counters();
+    private long movies;
+    private long totalDuration;
+    private long genres;
+    private long actors;
+
+    // Transactions that recorded changes and have not applied them yet.
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private volatile boolean dirty;
+
+    @Autowired
+    public CatalogStats(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void movieAdded(Movie movie) {
+        movieAdded(movie.getReleaseYear(), movie.getDuration(), genreIds(movie), actorIds(movie));
+    }
+
+    public void movieRemoved(Movie movie) {
+        movieChanged(-1, movie.getReleaseYear(), movie.getDuration(), genreIds(movie), actorIds(movie));
+    }
+
+    public void movieAdded(int releaseYear, int duration, Collection<Long> genreIds, Collection<Long> actorIds) {
+        movieChanged(1, releaseYear, duration, genreIds, actorIds);
+    }
+
+    public void genreAdded() {
+        record(() -> genres++);
+    }
+
+    // Force-deleting a genre unlinks its movies, so its counters go with it.
+    public void genreRemoved(long genreId) {
+        record(() -> {
+            genres--;
+            byGenre.clear(key(genreId));
+        });
+    }
+
+    public void actorAdded() {
+        record(() -> actors++);
+    }
+
+    public void actorRemoved(long actorId) {
+        record(() -> {
+            actors--;
+            byActor.clear(key(actorId));
+        });
+    }
+
+    public synchronized CatalogStatsDTO totals() {
+        return new CatalogStatsDTO(movies, genres, actors, average(totalDuration, movies));
+    }
+
+    public synchronized MovieGroupStatsDTO genre(long genreId) {
+        return group(byGenre, genreId);
+    }
+
+    public synchronized MovieGroupStatsDTO actor(long actorId) {
+        return group(byActor, actorId);
+    }
+
+    public synchronized MovieGroupStatsDTO year(int releaseYear) {
+        return group(byYear, releaseYear);
+    }
+
+    public synchronized List<MovieGroupStatsDTO> genres() {
+        return groups(byGenre);
+    }
+
+    public synchronized List<MovieGroupStatsDTO> years() {
+        return groups(byYear);
+    }
+
+    @PostConstruct
+    void load() {
+        Map<String, Object> checkpoint = jdbcTemplate.queryForMap("SELECT * FROM stats_checkpoint WHERE id = 1");
+        if (((Number) checkpoint.get("valid")).intValue() == 1) {
+            synchronized (this) {
+                movies = ((Number) checkpoint.get("movies")).longValue();
+                totalDuration = ((Number) checkpoint.get("total_duration")).longValue();
+                genres = ((Number) checkpoint.get("genres")).longValue();
+                actors = ((Number) checkpoint.get("actors")).longValue();
+                jdbcTemplate.query("SELECT kind, group_key, movies, total_duration FROM stats_counter", rs -> {
+                    counters(rs.getString("kind")).add(rs.getInt("group_key"), rs.getLong("movies"), rs.getLong("total_duration"));
+                });
+            }
+            return;
+        }
+
+        log.info("No valid statistics checkpoint, rebuilding catalog statistics");
+        synchronized (this) {
+            jdbcTemplate.query("SELECT release_year, COUNT(*) AS movies, SUM(duration) AS total_duration " +
+                               "FROM movie GROUP BY release_year", rs -> {
+                byYear.add(rs.getInt("release_year"), rs.getLong("movies"), rs.getLong("total_duration"));
+                movies += rs.getLong("movies");
+                totalDuration += rs.getLong("total_duration");
+            });
+            rebuildLinks("movie_genre", "genre_id", byGenre);
+            rebuildLinks("movie_actor", "actor_id", byActor);
+            genres = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM genre", Long.class);
+            actors = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM actor", Long.class);
+        }
+        dirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${movies.stats.checkpoint-interval}", initialDelayString = "${movies.stats.checkpoint-interval}")
+    public void checkpoint() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // The first statement takes the writer connection, so no other write can commit until we are done.
+                jdbcTemplate.update("UPDATE stats_checkpoint SET valid = 0 WHERE id = 1");
+                List<Object[]> rows = new ArrayList<>();
+                Object[] totals;
+                synchronized (this) {
+                    if (pendingWrites.get() > 0) {
+                        // A committed write may not be applied yet; try again on the next run.
+                        dirty = true;
+                        return;
+                    }
+                    byGenre.forEach((key, count, duration) -> rows.add(new Object[] {GENRE, key, count, duration}));
+                    byActor.forEach((key, count, duration) -> rows.add(new Object[] {ACTOR, key, count, duration}));
+                    byYear.forEach((key, count, duration) -> rows.add(new Object[] {YEAR, key, count, duration}));
+                    totals = new Object[] {movies, totalDuration, genres, actors};
+                }
+                jdbcTemplate.update("DELETE FROM stats_counter");
+                jdbcTemplate.batchUpdate("INSERT INTO stats_counter (kind, group_key, movies, total_duration) " +
+                                         "VALUES (?, ?, ?, ?)", rows);
+                jdbcTemplate.update("UPDATE stats_checkpoint SET valid = 1, movies = ?, total_duration = ?, " +
+                                    "genres = ?, actors = ? WHERE id = 1", totals);
+            });
+        } catch (RuntimeException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    private void movieChanged(int sign, int releaseYear, int duration, Collection<Long> genreIds, Collection<Long> actorIds) {
+        long[] genreKeys = genreIds.stream().mapToLong(Long::longValue).toArray();
+        long[] actorKeys = actorIds.stream().mapToLong(Long::longValue).toArray();
+        record(() -> {
+            movies += sign;
+            totalDuration += (long) sign * duration;
+            byYear.add(releaseYear, sign, (long) sign * duration);
+            for (long genreId : genreKeys) {
+                byGenre.add(key(genreId), sign, (long) sign * duration);
+            }
+            for (long actorId : actorKeys) {
+                byActor.add(key(actorId), sign, (long) sign * duration);
+            }
+        });
+    }
+
+    private void record(Runnable change) {
+        if (AfterCommit.batch(this, change, this::apply, pendingWrites::decrementAndGet)) {
+            pendingWrites.incrementAndGet();
+            jdbcTemplate.update("UPDATE stats_checkpoint SET valid = 0 WHERE id = 1 AND valid = 1");
+        }
+    }
+
+    private synchronized void apply(List<Runnable> changes) {
+        changes.forEach(Runnable::run);
+        dirty = true;
+    }
+
+    private void rebuildLinks(String table, String column, Counters counters) {
+        jdbcTemplate.query("SELECT l." + column + " AS group_key, COUNT(*) AS movies, SUM(m.duration) AS total_duration " +
+                           "FROM " + table + " l JOIN movie m ON m.id = l.movie_id GROUP BY l." + column, rs -> {
+            counters.add(rs.getInt("group_key"), rs.getLong("movies"), rs.getLong("total_duration"));
+        });
+    }
+
+    private Counters counters(String kind) {
+        return switch (kind) {
+            case GENRE -> byGenre;
+            case ACTOR -> byActor;
+            default -> byYear;
+        };
+    }
+
+    private static MovieGroupStatsDTO group(Counters counters, long key) {
+        int index = key(key);
+        return new MovieGroupStatsDTO(key, counters.movies(index), average(counters.duration(index), counters.movies(index)));
+    }
+
+    private static List<MovieGroupStatsDTO> groups(Counters counters) {
+        List<MovieGroupStatsDTO> groups = new ArrayList<>();
+        counters.forEach((key, count, duration) -> groups.add(new MovieGroupStatsDTO(key, count, average(duration, count))));
+        return groups;
+    }
+
+    private static double average(long total, long count) {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    private static int key(long id) {
+        return Math.toIntExact(id);
+    }
+
+    private static List<Long> genreIds(Movie movie) {
+        return movie.getGenres().stream().map(Genre::getId).toList();
+    }
+
+    private static List<Long> actorIds(Movie movie) {
+        return movie.getActors().stream().map(Actor::getId).toList();
+    }
+
+    /**
+     * Movie count and total duration per int key, in two arrays covering the range of keys
+     * seen so far. Genre and actor ids are dense and years span a few centuries, so lookups
+     * are an array index rather than a hash of a boxed key.
+     */
+    static final class Counters {
+        private int offset;
+        private long[] movies = new long[0];
+        private long[] durations = new long[0];
+
+        void add(int key, long count, long duration) {
+            int index = index(key);
+            movies[index] += count;
+            durations[index] += duration;
+        }
+
+        void clear(int key) {
+            int index = key - offset;
+            if (index >= 0 && index < movies.length) {
+                movies[index] = 0;
+                durations[index] = 0;
+            }
+        }
+
+        long movies(int key) {
+            int index = key - offset;
+            return index >= 0 && index < movies.length ? movies[index] : 0;
+        }
+
+        long duration(int key) {
+            int index = key - offset;
+            return index >= 0 && index < durations.length ? durations[index] : 0;
+        }
+
+        // Visits every key with at least one movie, in key order.
+        void forEach(GroupVisitor visitor) {
+            for (int index = 0; index < movies.length; index++) {
+                if (movies[index] != 0) {
+                    visitor.visit(offset + index, movies[index], durations[index]);
+                }
+            }
+        }
+
+        private int index(int key) {
+            if (movies.length == 0) {
+                offset = key;
+            }
+            int low = Math.min(offset, key);
+            int high = Math.max(offset + movies.length, key + 1);
+            if (low < offset || high > offset + movies.length) {
+                // Grow by half again on the side that ran out, so runs of new ids do not copy every time.
+                int slack = Math.max(16, (high - low) / 2);
+                int newLow = low < offset ? low - slack : offset;
+                int newHigh = high > offset + movies.length ? high + slack : offset + movies.length;
+                movies = resize(movies, offset, newLow, newHigh);
+                durations = resize(durations, offset, newLow, newHigh);
+                offset = newLow;
+            }
+            return key - offset;
+        }
+
+        private static long[] resize(long[] values, int offset, int newLow, int newHigh) {
+            long[] resized = new long[newHigh - newLow];
+            System.arraycopy(values, 0, resized, offset - newLow, values.length);
+            return resized;
+        }
+    }
+
+    @FunctionalInterface
+    interface GroupVisitor {
+        void visit(int key, long movies, long duration);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.ChangeBatchDTO;
+import com.example.movies_api.dto.ChangeDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the change log written by the triggers of migration V6, for consumers that sync
+ * incrementally from a sequence number.
+ *
+ * A poll that finds nothing new can wait for the next commit: it is parked as a pending
+ * future without holding a thread, and every committed write schedules one pass over the
+ * waiting polls on the {@code catalogScheduler}, which answers each with the changes after
+ * its position. Polls at the same position share a query.
+ */
+@Service
+public class ChangeFeed {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Scheduler scheduler;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+
+    @Autowired
+    public ChangeFeed(JdbcTemplate jdbcTemplate, @Qualifier("catalogScheduler") Scheduler scheduler,
+                      CatalogChangeTracker changeTracker) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.scheduler = scheduler;
+        changeTracker.onCommit(this::changesCommitted);
+    }
+
+    public ChangeBatchDTO getChanges(long since, int limit) {
+        List<ChangeDTO> changes = jdbcTemplate.query(
+                "SELECT seq, entity, entity_id, operation, version, changed_at FROM change_log " +
+                "WHERE seq > ? ORDER BY seq LIMIT ?",
+                (rs, row) -> new ChangeDTO(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getString(4),
+                        rs.getLong(5), rs.getLong(6)),
+                since, limit);
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new ChangeBatchDTO(changes, next);
+    }
+
+    /**
+     * The time of the latest logged change. Writes are serialized and stamped from one clock, so
+     * every write that commits after this call is stamped at or after it.
+     */
+    public long lastChangedAt() {
+        List<Long> latest = jdbcTemplate.queryForList(
+                "SELECT changed_at FROM change_log ORDER BY seq DESC LIMIT 1", Long.class);
+        return latest.isEmpty() ? 0 : latest.get(0);
+    }
+
+    /**
+     * Ids of the rows of {@code table} deleted at or after {@code since} that do not exist
+     * (again) now, read from the delete entries of the log.
+     */
+    public List<Long> getDeletedIds(CatalogChangeTracker.Table table, long since) {
+        String entity = table.name().toLowerCase(Locale.ROOT);
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT c.entity_id FROM change_log c " +
+                "WHERE c.entity = ? AND c.operation = 'delete' AND c.changed_at >= ? " +
+                "AND NOT EXISTS (SELECT 1 FROM " + entity + " e WHERE e.id = c.entity_id) ORDER BY c.entity_id",
+                Long.class, entity, since);
+    }
+
+    /**
+     * Answers with the changes after {@code since} as soon as there are any, or with an empty
+     * batch once {@code waitMillis} have passed.
+     */
+    public CompletableFuture<ChangeBatchDTO> pollChanges(long since, int limit, long waitMillis) {
+        CompletableFuture<ChangeBatchDTO> result = new CompletableFuture<>();
+        Waiter waiter = new Waiter(new Position(since, limit), result);
+        // Registered before the first read, so a commit in between still wakes it.
+        waiters.add(waiter);
+        result.whenComplete((batch, error) -> waiters.remove(waiter));
+        ChangeBatchDTO batch = getChanges(since, limit);
+        if (!batch.getChanges().isEmpty() || waitMillis <= 0) {
+            result.complete(batch);
+        }
+        return result.completeOnTimeout(new ChangeBatchDTO(List.of(), since), waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void changesCommitted() {
+        if (waiters.isEmpty() || !wakeScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::wakeWaiters);
+        } catch (RejectedExecutionException e) {
+            // The scheduler is saturated; the waiting polls time out and clients poll again.
+            wakeScheduled.set(false);
+        }
+    }
+
+    private void wakeWaiters() {
+        // Cleared first: a commit during this pass schedules another one.
+        wakeScheduled.set(false);
+        Map<Position, ChangeBatchDTO> batches = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            ChangeBatchDTO batch = batches.computeIfAbsent(waiter.position(),
+                    position -> getChanges(position.since(), position.limit()));
+            if (!batch.getChanges().isEmpty()) {
+                waiter.result().complete(batch);
+            }
+        }
+    }
+
+    private record Position(long since, int limit) {
+    }
+
+    private record Waiter(Position position, CompletableFuture<ChangeBatchDTO> result) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.movies_api.services;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Reads a repository stream in fixed-size chunks inside one read-only transaction.
+ * Each chunk is handed to the consumer while its entities are still managed (so lazy
+ * associations load in one batch per chunk) and the persistence context is cleared
+ * afterwards, keeping memory flat regardless of how many rows the stream returns.
+ */
+@Component
+public class EntityStreamer {
+
+    // Matches the @BatchSize of the Movie associations, so a chunk costs one query per association.
+    static final int CHUNK_SIZE = 100;
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public EntityStreamer(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public <T> void forEachChunk(Supplier<Stream<T>> source, Consumer<List<T>> chunkConsumer) {
+        try (Stream<T> stream = source.get()) {
+            Iterator<T> rows = stream.iterator();
+            List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    flushChunk(chunk, chunkConsumer);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flushChunk(chunk, chunkConsumer);
+            }
+        }
+    }
+
+    private <T> void flushChunk(List<T> chunk, Consumer<List<T>> chunkConsumer) {
+        chunkConsumer.accept(chunk);
+        chunk.clear();
+        entityManager.clear();
+    }
+}
@@ -1,67 +1,159 @@
 package com.example.movies_api.services;
 
+import com.example.movies_api.config.CacheConfig;
 import com.example.movies_api.entities.Genre;
-import com.example.movies_api.entities.Movie;
 import com.example.movies_api.exceptions.ResourceNotFoundException;
 import com.example.movies_api.repositories.GenreRepository;
 import com.example.movies_api.repositories.MovieRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class GenreService {
 
     private final GenreRepository genreRepository;
     private final MovieRepository movieRepository;
+    private final EntityStreamer entityStreamer;
+    private final CacheManager cacheManager;
+    private final CatalogChangeTracker changeTracker;
+    private final CatalogStats catalogStats;
+    private final SimilarityIndex similarityIndex;
+    private final CatalogReplica catalogReplica;
 
     @Autowired
-    public GenreService(GenreRepository genreRepository, MovieRepository movieRepository) {
+    public GenreService(GenreRepository genreRepository, MovieRepository movieRepository, EntityStreamer entityStreamer,
+                        CacheManager cacheManager, CatalogChangeTracker changeTracker, CatalogStats catalogStats,
+                        SimilarityIndex similarityIndex, CatalogReplica catalogReplica) {
         this.genreRepository = genreRepository;
         this.movieRepository = movieRepository;
+        this.entityStreamer = entityStreamer;
+        this.cacheManager = cacheManager;
+        this.changeTracker = changeTracker;
+        this.catalogStats = catalogStats;
+        this.similarityIndex = similarityIndex;
+        this.catalogReplica = catalogReplica;
     }
 
+    @Transactional
     public Genre createGenre(Genre genre) {
-        return genreRepository.save(genre);
+        changeTracker.markChanged(CatalogChangeTracker.Table.GENRE);
+        catalogStats.genreAdded();
+        Genre savedGenre = genreRepository.save(genre);
+        catalogReplica.genreChanged(savedGenre);
+        return savedGenre;
     }
 
     public Page<Genre> getAllGenres(Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null) {
+            return snapshot.genres(pageable);
+        }
         return genreRepository.findAll(pageable);
     }
 
+    public void streamAllGenres(Consumer<List<Genre>> chunkConsumer) {
+        entityStreamer.forEachChunk(genreRepository::streamAll, chunkConsumer);
+    }
+
+    public Slice<Genre> getGenresAfter(long afterId, int size) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.genresAfter(afterId, size);
+        }
+        return genreRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
+    }
+
+    public Slice<Genre> getGenresAfterUpdatedAt(long updatedAt, long afterId, int size) {
+        return genreRepository.findAfterUpdatedAt(updatedAt, afterId, PageRequest.of(0, size));
+    }
+
+    @Cacheable(value = CacheConfig.GENRES_BY_ID, unless = "#result == null")
     public Optional<Genre> getGenreById(Long id) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.genre(id);
+        }
         return genreRepository.findById(id);
     }
 
+    @Cacheable(value = CacheConfig.GENRES_BY_NAME, unless = "#result == null")
+    public Optional<Genre> getGenreByName(String name) {
+        return genreRepository.findByName(name);
+    }
+
+    /**
+     * Looks up all ids at once: cached genres are reused and the rest are loaded with a
+     * single IN query. Ids that do not exist are simply absent from the result.
+     */
+    public Map<Long, Genre> getGenresByIds(Collection<Long> ids) {
+        return CachedLookups.resolveAll(cacheManager.getCache(CacheConfig.GENRES_BY_ID), ids,
+                genreRepository::findAllById, Genre::getId);
+    }
+
+    public Map<String, Genre> getGenresByNames(Collection<String> names) {
+        return CachedLookups.resolveAll(cacheManager.getCache(CacheConfig.GENRES_BY_NAME), names,
+                genreRepository::findByNameIn, Genre::getName);
+    }
+
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.GENRES_BY_ID, key = "#id"),
+        @CacheEvict(value = CacheConfig.GENRES_BY_NAME, allEntries = true)
+    })
+    @Transactional
     public Genre updateGenre(Long id, String newName) {
         Genre genre = genreRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Genre with id " + id + " not found"));
     
+        // Movies embed their genres' names, so a rename also changes every linked movie: bumping
+        // their versions moves their updated_at forward and they show up in the movie deltas.
+        if (!newName.equals(genre.getName())) {
+            changeTracker.markChanged(CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.MOVIE);
+            movieRepository.incrementVersionsByGenre(id);
+        } else {
+            changeTracker.markChanged(CatalogChangeTracker.Table.GENRE);
+        }
         genre.setName(newName);
+        catalogReplica.genreChanged(genre);
         return genreRepository.save(genre);
     }
 
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.GENRES_BY_ID, key = "#id"),
+        @CacheEvict(value = CacheConfig.GENRES_BY_NAME, allEntries = true)
+    })
+    @Transactional
     public void deleteGenre(Long id, boolean force) {
         Genre genre = genreRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Genre with id " + id + " not found"));
 
-        List<Movie> associatedMovies = genre.getMovies().stream().toList();
-
-        if (!force && !associatedMovies.isEmpty()) {
+        if (!force && movieRepository.existsByGenres_Id(id)) {
             throw new IllegalStateException("Cannot delete genre '" + genre.getName() + 
-                                            "' because it has " + associatedMovies.size() + " associated movies.");
+                                            "' because it has associated movies.");
         }
 
+        changeTracker.markChanged(CatalogChangeTracker.Table.GENRE, CatalogChangeTracker.Table.MOVIE);
+        catalogStats.genreRemoved(id);
+        similarityIndex.genreRemoved(id);
+        catalogReplica.genreRemoved(id);
         if (force) {
-            for (Movie movie : associatedMovies) {
-                movie.getGenres().remove(genre);
-                movieRepository.save(movie);
-            }
+            movieRepository.incrementVersionsByGenre(id);
+            movieRepository.unlinkGenre(id);
         }
-        genreRepository.deleteById(id);
+        genreRepository.bulkDeleteById(id);
     }
 }
@@ -0,0 +1,338 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.BulkImportResultDTO;
+import com.example.movies_api.dto.MovieImportRowDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk ingestion of movies from NDJSON or CSV. Rows are parsed incrementally and
+ * written with plain JDBC batch inserts, one transaction per chunk, bypassing the
+ * persistence context entirely. Genres and actors are referenced by name and
+ * resolved through in-memory maps that are filled with one IN query per chunk.
+ * Unknown genres are created on the fly; unknown actors fail the row, since an
+ * actor cannot be created without a birth date.
+ */
+@Service
+public class MovieImportService {
+
+    static final int CHUNK_SIZE = 5_000;
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    // The modification time as the triggers of migration V7 compute it; rows inserted with it skip
+    // the trigger that would otherwise stamp them one by one.
+    private static final String NOW_MILLIS = "cast((julianday('now') - 2440587.5) * 86400000 as integer)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader rowReader;
+    private final CatalogChangeTracker changeTracker;
+    private final CatalogStats catalogStats;
+    private final ActorGraph actorGraph;
+    private final SimilarityIndex similarityIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final CatalogReplica catalogReplica;
+
+    @Autowired
+    public MovieImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, CatalogChangeTracker changeTracker,
+                              CatalogStats catalogStats, ActorGraph actorGraph,
+                              SimilarityIndex similarityIndex, SuggestionIndex suggestionIndex,
+                              CatalogReplica catalogReplica) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rowReader = objectMapper.readerFor(MovieImportRowDTO.class);
+        this.changeTracker = changeTracker;
+        this.catalogStats = catalogStats;
+        this.actorGraph = actorGraph;
+        this.similarityIndex = similarityIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.catalogReplica = catalogReplica;
+    }
+
+    public BulkImportResultDTO importNdjson(InputStream input) throws IOException {
+        return importRows(input, false);
+    }
+
+    public BulkImportResultDTO importCsv(InputStream input) throws IOException {
+        return importRows(input, true);
+    }
+
+    private BulkImportResultDTO importRows(InputStream input, boolean csv) throws IOException {
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        Map<String, Long> genreIds = new HashMap<>();
+        Map<String, Long> actorIds = new HashMap<>();
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        suggestionIndex.importStarted();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (csv && lineNumber == 1 && line.startsWith("title,"))) {
+                    continue;
+                }
+                try {
+                    MovieImportRowDTO row = csv ? parseCsv(line) : rowReader.readValue(line);
+                    validate(row);
+                    chunk.add(new ParsedRow(lineNumber, row));
+                } catch (JsonProcessingException e) {
+                    result.addError(lineNumber, "Invalid JSON: " + e.getOriginalMessage(), MAX_REPORTED_ERRORS);
+                } catch (IllegalArgumentException e) {
+                    result.addError(lineNumber, e.getMessage(), MAX_REPORTED_ERRORS);
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, genreIds, actorIds, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, genreIds, actorIds, result);
+            }
+        } finally {
+            suggestionIndex.importFinished();
+        }
+        return result;
+    }
+
+    private void writeChunk(List<ParsedRow> chunk, Map<String, Long> genreIds, Map<String, Long> actorIds,
+                            BulkImportResultDTO result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            changeTracker.markChanged(CatalogChangeTracker.Table.MOVIE, CatalogChangeTracker.Table.GENRE);
+            resolveNames(chunk, ParsedRow::genres, "genre", genreIds);
+            resolveNames(chunk, ParsedRow::actors, "actor", actorIds);
+
+            // SQLite allows a single writer, so ids allocated from MAX(id) stay unique within the transaction.
+            long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM movie", Long.class) + 1;
+            long nextId = firstId;
+            List<Object[]> movies = new ArrayList<>(chunk.size());
+            List<Object[]> movieGenres = new ArrayList<>();
+            List<Object[]> movieActors = new ArrayList<>();
+
+            for (ParsedRow parsed : chunk) {
+                String missingActor = firstMissing(parsed.actors(), actorIds);
+                if (missingActor != null) {
+                    result.addError(parsed.line, "Actor with name " + missingActor + " not found", MAX_REPORTED_ERRORS);
+                    continue;
+                }
+                for (String genre : parsed.genres()) {
+                    if (!genreIds.containsKey(genre)) {
+                        genreIds.put(genre, createGenre(genre));
+                    }
+                }
+
+                long movieId = nextId++;
+                MovieImportRowDTO row = parsed.row;
+                movies.add(new Object[] {movieId, row.getTitle(), row.getReleaseYear(), row.getDuration()});
+                List<Long> rowGenres = new ArrayList<>(parsed.genres().size());
+                for (String genre : parsed.genres()) {
+                    rowGenres.add(genreIds.get(genre));
+                    movieGenres.add(new Object[] {movieId, genreIds.get(genre)});
+                }
+                List<Long> rowActors = new ArrayList<>(parsed.actors().size());
+                for (String actor : parsed.actors()) {
+                    rowActors.add(actorIds.get(actor));
+                    movieActors.add(new Object[] {movieId, actorIds.get(actor)});
+                }
+                catalogStats.movieAdded(row.getReleaseYear(), row.getDuration(), rowGenres, rowActors);
+                actorGraph.castChanged(movieId, rowActors);
+                similarityIndex.movieChanged(movieId, row.getReleaseYear(), rowGenres, rowActors);
+                suggestionIndex.movieChanged(movieId, row.getTitle(), rowActors.size());
+                catalogReplica.movieChanged(movieId, row.getTitle(), row.getReleaseYear(), row.getDuration(),
+                        rowGenres, rowActors);
+            }
+
+            // Indexing titles row by row through the FTS trigger dominates import time, so the flag of
+            // migration V8 switches the trigger off for the chunk and the new rows are indexed in one
+            // statement. The flag is lowered before the commit, so no other connection sees it raised.
+            jdbcTemplate.update("UPDATE bulk_import SET active = 1 WHERE id = 1");
+            jdbcTemplate.batchUpdate("INSERT INTO movie (id, title, release_year, duration, updated_at) VALUES (?, ?, ?, ?, "
+                    + NOW_MILLIS + ")", movies);
+            jdbcTemplate.update("INSERT INTO movie_title_fts (rowid, title) SELECT id, title FROM movie WHERE id >= ?",
+                    firstId);
+            jdbcTemplate.update("UPDATE bulk_import SET active = 0 WHERE id = 1");
+            jdbcTemplate.batchUpdate("INSERT INTO movie_genre (movie_id, genre_id) VALUES (?, ?)", movieGenres);
+            jdbcTemplate.batchUpdate("INSERT INTO movie_actor (movie_id, actor_id) VALUES (?, ?)", movieActors);
+            result.addImported(movies.size());
+        });
+    }
+
+    // Loads the ids of all names in the chunk that are not in the map yet, with one IN query.
+    private void resolveNames(List<ParsedRow> chunk, Function<ParsedRow, Set<String>> names,
+                              String table, Map<String, Long> ids) {
+        Set<String> unknown = new LinkedHashSet<>();
+        for (ParsedRow parsed : chunk) {
+            for (String name : names.apply(parsed)) {
+                if (!ids.containsKey(name)) {
+                    unknown.add(name);
+                }
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        for (List<String> batch : partition(unknown, 500)) {
+            namedJdbcTemplate.query("SELECT id, name FROM " + table + " WHERE name IN (:names)",
+                    new MapSqlParameterSource("names", batch),
+                    rs -> { ids.putIfAbsent(rs.getString("name"), rs.getLong("id")); });
+        }
+    }
+
+    private long createGenre(String name) {
+        jdbcTemplate.update("INSERT INTO genre (name) VALUES (?)", name);
+        catalogStats.genreAdded();
+        long genreId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+        catalogReplica.genreChanged(genreId, name);
+        return genreId;
+    }
+
+    private static String firstMissing(Set<String> names, Map<String, Long> ids) {
+        for (String name : names) {
+            if (!ids.containsKey(name)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static List<List<String>> partition(Collection<String> values, int size) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>(size);
+        for (String value : values) {
+            batch.add(value);
+            if (batch.size() == size) {
+                batches.add(batch);
+                batch = new ArrayList<>(size);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static void validate(MovieImportRowDTO row) {
+        if (row == null) {
+            throw new IllegalArgumentException("Row must be a JSON object");
+        }
+        if (row.getTitle() == null || row.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title cannot be empty");
+        }
+        if (row.getTitle().length() > 100) {
+            throw new IllegalArgumentException("Title must be between 1 and 100 characters");
+        }
+        if (row.getReleaseYear() == null) {
+            throw new IllegalArgumentException("Release year cannot be null");
+        }
+        if (row.getDuration() == null) {
+            throw new IllegalArgumentException("Duration cannot be null");
+        }
+    }
+
+    // CSV columns: title,releaseYear,duration,genres,actors, with genres and actors separated by '|'.
+    private static MovieImportRowDTO parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 3 || fields.size() > 5) {
+            throw new IllegalArgumentException("Expected columns: title,releaseYear,duration,genres,actors");
+        }
+        MovieImportRowDTO row = new MovieImportRowDTO();
+        row.setTitle(fields.get(0));
+        try {
+            row.setReleaseYear(Integer.valueOf(fields.get(1).trim()));
+            row.setDuration(Integer.valueOf(fields.get(2).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Release year and duration must be numbers");
+        }
+        row.setGenres(fields.size() > 3 ? splitNames(fields.get(3)) : List.of());
+        row.setActors(fields.size() > 4 ? splitNames(fields.get(4)) : List.of());
+        return row;
+    }
+
+    private static List<String> splitNames(String field) {
+        return field.isBlank() ? List.of() : Arrays.asList(field.split("\\|"));
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Set<String> names(List<String> values) {
+        Set<String> names = new LinkedHashSet<>();
+        if (values != null) {
+            for (String value : values) {
+                if (value != null && !value.isBlank()) {
+                    names.add(value.trim());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static final class ParsedRow {
+        private final long line;
+        private final MovieImportRowDTO row;
+        private final Set<String> genres;
+        private final Set<String> actors;
+
+        ParsedRow(long line, MovieImportRowDTO row) {
+            this.line = line;
+            this.row = row;
+            this.genres = names(row.getGenres());
+            this.actors = names(row.getActors());
+        }
+
+        Set<String> genres() { return genres; }
+        Set<String> actors() { return actors; }
+    }
+}
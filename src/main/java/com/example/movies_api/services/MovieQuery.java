@@ -0,0 +1,140 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.MovieQueryDTO;
+import com.example.movies_api.exceptions.InvalidQueryException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates a {@link MovieQueryDTO} into a single SQL statement over the movie table.
+ * Every filter becomes a condition SQLite can answer from an index: genre and actor sets
+ * are id subqueries on the (genre_id, movie_id) and (actor_id, movie_id) indexes, year
+ * and duration ranges use the (release_year, id) and (duration, id) indexes, and title
+ * terms go through the FTS5 table. Conditions are joined with AND, or with OR for
+ * {@code match=any}.
+ */
+final class MovieQuery {
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "m.id",
+            "releaseYear", "m.release_year",
+            "title", "m.title",
+            "duration", "m.duration");
+
+    private final String where;
+    private final String orderBy;
+    private final MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+    private MovieQuery(MovieQueryDTO filter) {
+        List<String> conditions = new ArrayList<>();
+        addIdSet(conditions, "movie_genre", "genre_id", "genres", filter.getGenres(),
+                isAll(filter.getGenreMatch(), "genreMatch", false));
+        addIdSet(conditions, "movie_actor", "actor_id", "actors", filter.getActors(),
+                isAll(filter.getActorMatch(), "actorMatch", false));
+        addRange(conditions, "m.release_year", "year", filter.getYearFrom(), filter.getYearTo());
+        addRange(conditions, "m.duration", "duration", filter.getMinDuration(), filter.getMaxDuration());
+        addTitle(conditions, filter.getTitle());
+
+        String joiner = isAll(filter.getMatch(), "match", true) ? " AND " : " OR ";
+        this.where = conditions.isEmpty() ? "" : " WHERE " + String.join(joiner, conditions);
+        this.orderBy = orderBy(filter.getSort());
+    }
+
+    static MovieQuery of(MovieQueryDTO filter) {
+        return new MovieQuery(filter);
+    }
+
+    String sql(String columns, Pageable pageable) {
+        String sql = "SELECT " + columns + " FROM movie m" + where + orderBy;
+        if (pageable.isPaged()) {
+            parameters.addValue("limit", pageable.getPageSize());
+            parameters.addValue("offset", pageable.getOffset());
+            sql += " LIMIT :limit OFFSET :offset";
+        }
+        return sql;
+    }
+
+    MapSqlParameterSource parameters() {
+        return parameters;
+    }
+
+    // "any" needs one of the ids; "all" needs every one, counted per movie on the same index.
+    private void addIdSet(List<String> conditions, String table, String column, String name,
+                          List<Long> ids, boolean all) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        parameters.addValue(name, distinct);
+        String subquery = "SELECT movie_id FROM " + table + " WHERE " + column + " IN (:" + name + ")";
+        if (all && distinct.size() > 1) {
+            parameters.addValue(name + "Count", distinct.size());
+            subquery += " GROUP BY movie_id HAVING COUNT(*) = :" + name + "Count";
+        }
+        conditions.add("m.id IN (" + subquery + ")");
+    }
+
+    // Open ends are closed with the int bounds: SQLite estimates a one-sided range as too unselective
+    // to be worth its index and scans the table in id order instead.
+    private void addRange(List<String> conditions, String column, String name, Integer from, Integer to) {
+        if (from == null && to == null) {
+            return;
+        }
+        if (from != null && to != null && from > to) {
+            throw new InvalidQueryException("Invalid " + name + " range: " + from + " is greater than " + to + ".");
+        }
+        parameters.addValue(name + "From", from != null ? from : Integer.MIN_VALUE)
+                  .addValue(name + "To", to != null ? to : Integer.MAX_VALUE);
+        conditions.add("(" + column + " BETWEEN :" + name + "From AND :" + name + "To)");
+    }
+
+    // Same term handling as /api/movies/search; a title without letters or digits falls back to LIKE.
+    private void addTitle(List<String> conditions, String title) {
+        if (title == null || title.isBlank()) {
+            return;
+        }
+        String query = MovieService.toFullTextQuery(title);
+        if (query.isEmpty()) {
+            parameters.addValue("title", title);
+            conditions.add("LOWER(m.title) LIKE LOWER('%' || :title || '%')");
+        } else {
+            parameters.addValue("title", query);
+            conditions.add("m.id IN (SELECT rowid FROM movie_title_fts WHERE movie_title_fts MATCH :title)");
+        }
+    }
+
+    private static String orderBy(String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return " ORDER BY m.id";
+        }
+        boolean descending = sort.startsWith("-");
+        String column = SORT_COLUMNS.get(descending ? sort.substring(1) : sort);
+        if (column == null) {
+            throw new InvalidQueryException(
+                    "Invalid sort parameter: expected id, releaseYear, title or duration, optionally prefixed with '-'.");
+        }
+        String direction = descending ? " DESC" : "";
+        return column.equals("m.id")
+                ? " ORDER BY m.id" + direction
+                : " ORDER BY " + column + direction + ", m.id" + direction;
+    }
+
+    private static boolean isAll(String match, String parameter, boolean byDefault) {
+        if (match == null) {
+            return byDefault;
+        }
+        if (match.equals("all")) {
+            return true;
+        }
+        if (match.equals("any")) {
+            return false;
+        }
+        throw new InvalidQueryException("Invalid " + parameter + " parameter: expected all or any.");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.MovieQueryDTO;
+import com.example.movies_api.dto.MovieSummaryDTO;
+import com.example.movies_api.entities.Movie;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Runs combined movie filters (see {@link MovieQuery}) as one statement. Full results are
+ * mapped to entities by a native query, so their genres and actors still load in batches;
+ * summaries are read straight from the result set.
+ */
+@Service
+public class MovieQueryService {
+
+    private final EntityManager entityManager;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MovieQueryService(EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Movie> findMovies(MovieQueryDTO filter, Pageable pageable) {
+        MovieQuery movieQuery = MovieQuery.of(filter);
+        Query query = entityManager.createNativeQuery(movieQuery.sql("m.*", pageable), Movie.class);
+        MapSqlParameterSource parameters = movieQuery.parameters();
+        for (String name : parameters.getParameterNames()) {
+            query.setParameter(name, parameters.getValue(name));
+        }
+        return query.getResultList();
+    }
+
+    public List<MovieSummaryDTO> findMovieSummaries(MovieQueryDTO filter, Pageable pageable) {
+        MovieQuery movieQuery = MovieQuery.of(filter);
+        String sql = movieQuery.sql("m.id, m.title, m.release_year, m.duration", pageable);
+        return jdbcTemplate.query(sql, movieQuery.parameters(), (rs, row) -> new MovieSummaryDTO(
+                rs.getLong("id"), rs.getString("title"), rs.getInt("release_year"), rs.getInt("duration")));
+    }
+}
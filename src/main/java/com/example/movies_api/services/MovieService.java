@@ -1,6 +1,9 @@
 package com.example.movies_api.services;
 
+import com.example.movies_api.dto.MovieSummaryDTO;
 import com.example.movies_api.dto.MovieUpdateDTO;
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.dto.SimilarMovieDTO;
 import com.example.movies_api.entities.Actor;
 import com.example.movies_api.entities.Genre;
 import com.example.movies_api.entities.Movie;
@@ -11,14 +14,23 @@ import com.example.movies_api.repositories.ActorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class MovieService {
@@ -26,50 +38,250 @@ public class MovieService {
     private final MovieRepository movieRepository;
     private final GenreRepository genreRepository;
     private final ActorRepository actorRepository;
+    private final GenreService genreService;
+    private final ActorService actorService;
+    private final EntityStreamer entityStreamer;
+    private final CatalogChangeTracker changeTracker;
+    private final CatalogStats catalogStats;
+    private final ActorGraph actorGraph;
+    private final SimilarityIndex similarityIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final CatalogReplica catalogReplica;
 
     @Autowired
-    public MovieService(MovieRepository movieRepository, GenreRepository genreRepository, ActorRepository actorRepository) {
+    public MovieService(MovieRepository movieRepository, GenreRepository genreRepository, ActorRepository actorRepository,
+                        GenreService genreService, ActorService actorService, EntityStreamer entityStreamer,
+                        CatalogChangeTracker changeTracker, CatalogStats catalogStats, ActorGraph actorGraph,
+                        SimilarityIndex similarityIndex, SuggestionIndex suggestionIndex, CatalogReplica catalogReplica) {
         this.movieRepository = movieRepository;
         this.genreRepository = genreRepository;
         this.actorRepository = actorRepository;
+        this.genreService = genreService;
+        this.actorService = actorService;
+        this.entityStreamer = entityStreamer;
+        this.changeTracker = changeTracker;
+        this.catalogStats = catalogStats;
+        this.actorGraph = actorGraph;
+        this.similarityIndex = similarityIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.catalogReplica = catalogReplica;
     }
 
+    @Transactional
     public Movie createMovie(Movie movie, List<Long> genreIds, List<Long> actorIds) {
-        Set<Genre> genres = new HashSet<>();
-        
-        if (genreIds != null) {
-            for (Long genreId : genreIds) {
-                Genre genre = genreRepository.findById(genreId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Genre with id " + genreId + " not found"));
-                genres.add(genre);
-            }
-        }
-        movie.setGenres(genres);
-    
-        Set<Actor> actors = new HashSet<>();
-        
-        if (actorIds != null) {
-            for (Long actorId : actorIds) {
-                Actor actor = actorRepository.findById(actorId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Actor with id " + actorId + " not found"));
-                actors.add(actor);
-            }
+        List<Long> requestedGenres = genreIds != null ? genreIds : List.of();
+        List<Long> requestedActors = actorIds != null ? actorIds : List.of();
+        Map<Long, Genre> genres = genreService.getGenresByIds(requestedGenres);
+        Map<Long, Actor> actors = actorService.getActorsByIds(requestedActors);
+
+        StringJoiner missing = new StringJoiner("; ");
+        addMissing(missing, "Genre", "id", requestedGenres, genres);
+        addMissing(missing, "Actor", "id", requestedActors, actors);
+        if (missing.length() > 0) {
+            throw new ResourceNotFoundException(missing.toString());
         }
-        movie.setActors(actors);
-    
-        return movieRepository.save(movie);
+
+        changeTracker.markChanged(CatalogChangeTracker.Table.MOVIE);
+        movie.setGenres(new HashSet<>(genres.values()));
+        movie.setActors(new HashSet<>(actors.values()));
+        catalogStats.movieAdded(movie);
+        Movie savedMovie = movieRepository.save(movie);
+        actorGraph.castChanged(savedMovie.getId(), actorIds(savedMovie));
+        similarityIndex.movieChanged(savedMovie.getId(), savedMovie.getReleaseYear(), genreIds(savedMovie), actorIds(savedMovie));
+        suggestionIndex.movieChanged(savedMovie.getId(), savedMovie.getTitle(), savedMovie.getActors().size());
+        catalogReplica.movieChanged(savedMovie);
+        return savedMovie;
     }
 
     public Page<Movie> getAllMovies(Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null) {
+            return snapshot.movies(pageable);
+        }
         return movieRepository.findAll(pageable);
     }
 
+    public void streamAllMovies(Consumer<List<Movie>> chunkConsumer) {
+        entityStreamer.forEachChunk(movieRepository::streamAll, chunkConsumer);
+    }
+
+    public Slice<Movie> getMoviesAfter(PageCursor cursor, int size) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return cursor.isByReleaseYear()
+                    ? snapshot.moviesAfterReleaseYear(cursor.getReleaseYear(), cursor.getId(), size, snapshot::movieAt)
+                    : snapshot.moviesAfter(cursor.getId(), size, snapshot::movieAt);
+        }
+        Pageable limit = PageRequest.of(0, size);
+        if (cursor.isByReleaseYear()) {
+            return movieRepository.findAfterReleaseYear(cursor.getReleaseYear(), cursor.getId(), limit);
+        }
+        return movieRepository.findByIdGreaterThanOrderByIdAsc(cursor.getId(), limit);
+    }
+
+    // Modification times are not part of the snapshot, so this always reads the database.
+    public Slice<Movie> getMoviesAfterUpdatedAt(long updatedAt, long afterId, int size) {
+        return movieRepository.findAfterUpdatedAt(updatedAt, afterId, PageRequest.of(0, size));
+    }
+
+    public Optional<Slice<Movie>> getMoviesByGenreAfter(Long genreId, long afterId, int size) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.moviesByGenreAfter(genreId, afterId, size, snapshot::movieAt);
+        }
+        if (genreService.getGenreById(genreId).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(movieRepository.findByGenres_IdAndIdGreaterThanOrderByIdAsc(genreId, afterId, PageRequest.of(0, size)));
+    }
+
+    public Optional<Slice<Movie>> getMoviesByActorAfter(Long actorId, long afterId, int size) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.moviesByActorAfter(actorId, afterId, size, snapshot::movieAt);
+        }
+        if (actorService.getActorById(actorId).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(movieRepository.findByActors_IdAndIdGreaterThanOrderByIdAsc(actorId, afterId, PageRequest.of(0, size)));
+    }
+
+    public Optional<Slice<Movie>> getMoviesByReleaseYearAfter(int releaseYear, long afterId, int size) {
+        Slice<Movie> movies = readMoviesByReleaseYearAfter(releaseYear, afterId, size);
+        if (movies.isEmpty() && !hasMoviesBefore(releaseYear, afterId)) {
+            return Optional.empty();
+        }
+        return Optional.of(movies);
+    }
+
+    // A release year is only known through its movies, so a year without any is treated like an unknown
+    // genre or actor. An empty page after a cursor is the end of a known year if the year has movies.
+    private boolean hasMoviesBefore(int releaseYear, long afterId) {
+        return afterId > 0 && !readMoviesByReleaseYearAfter(releaseYear, 0, 1).isEmpty();
+    }
+
+    private Slice<Movie> readMoviesByReleaseYearAfter(int releaseYear, long afterId, int size) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.moviesByReleaseYearAfter(releaseYear, afterId, size, snapshot::movieAt);
+        }
+        return movieRepository.findByReleaseYearAndIdGreaterThanOrderByIdAsc(releaseYear, afterId, PageRequest.of(0, size));
+    }
+
+    public void streamAllMovieSummaries(Consumer<List<MovieSummaryDTO>> chunkConsumer) {
+        entityStreamer.forEachChunk(movieRepository::streamAllSummaries, chunkConsumer);
+    }
+
+    // Summary pages are either cursor pages (an id to start after) or offset pages starting after id 0.
+    public Slice<MovieSummaryDTO> getMovieSummaries(PageCursor cursor, Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null && pageable.isPaged() && pageable.getOffset() == 0) {
+            return cursor.isByReleaseYear()
+                    ? snapshot.moviesAfterReleaseYear(cursor.getReleaseYear(), cursor.getId(), pageable.getPageSize(), snapshot::summaryAt)
+                    : snapshot.moviesAfter(cursor.getId(), pageable.getPageSize(), snapshot::summaryAt);
+        }
+        if (snapshot != null && pageable.isPaged() && !cursor.isByReleaseYear() && cursor.getId() == 0) {
+            return snapshot.movies(pageable, snapshot::summaryAt);
+        }
+        if (cursor.isByReleaseYear()) {
+            return movieRepository.findSummariesAfterReleaseYear(cursor.getReleaseYear(), cursor.getId(), pageable);
+        }
+        return movieRepository.findSummariesAfter(cursor.getId(), pageable);
+    }
+
+    public Optional<Slice<MovieSummaryDTO>> getMovieSummariesByGenre(Long genreId, long afterId, Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null && pageable.isPaged() && pageable.getOffset() == 0) {
+            return snapshot.moviesByGenreAfter(genreId, afterId, pageable.getPageSize(), snapshot::summaryAt);
+        }
+        if (snapshot != null && pageable.isPaged() && afterId == 0) {
+            return snapshot.moviesByGenre(genreId, pageable, snapshot::summaryAt).map(page -> page);
+        }
+        if (genreService.getGenreById(genreId).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(movieRepository.findSummariesByGenreAfter(genreId, afterId, pageable));
+    }
+
+    public Optional<Slice<MovieSummaryDTO>> getMovieSummariesByActor(Long actorId, long afterId, Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null && pageable.isPaged() && pageable.getOffset() == 0) {
+            return snapshot.moviesByActorAfter(actorId, afterId, pageable.getPageSize(), snapshot::summaryAt);
+        }
+        if (snapshot != null && pageable.isPaged() && afterId == 0) {
+            return snapshot.moviesByActor(actorId, pageable, snapshot::summaryAt).map(page -> page);
+        }
+        if (actorService.getActorById(actorId).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(movieRepository.findSummariesByActorAfter(actorId, afterId, pageable));
+    }
+
+    public Optional<Slice<MovieSummaryDTO>> getMovieSummariesByReleaseYear(int releaseYear, long afterId, Pageable pageable) {
+        Slice<MovieSummaryDTO> movies = readMovieSummariesByReleaseYear(releaseYear, afterId, pageable);
+        if (movies.isEmpty() && !hasMoviesBefore(releaseYear, afterId)) {
+            return Optional.empty();
+        }
+        return Optional.of(movies);
+    }
+
+    private Slice<MovieSummaryDTO> readMovieSummariesByReleaseYear(int releaseYear, long afterId, Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null && pageable.isPaged() && pageable.getOffset() == 0) {
+            return snapshot.moviesByReleaseYearAfter(releaseYear, afterId, pageable.getPageSize(), snapshot::summaryAt);
+        }
+        if (snapshot != null && pageable.isPaged() && afterId == 0) {
+            return snapshot.moviesByReleaseYear(releaseYear, pageable, snapshot::summaryAt);
+        }
+        return movieRepository.findSummariesByReleaseYearAfter(releaseYear, afterId, pageable);
+    }
+
+    public Optional<Slice<MovieSummaryDTO>> searchMovieSummariesByTitle(String title, Pageable pageable) {
+        String query = toFullTextQuery(title);
+        Slice<MovieSummaryDTO> movies = query.isEmpty()
+                ? movieRepository.findSummariesByTitleContainingIgnoreCase(title, pageable)
+                : movieRepository.searchSummariesByTitle(query, pageable).map(row ->
+                        new MovieSummaryDTO(row.getId(), row.getTitle(), row.getReleaseYear(), row.getDuration()));
+        return movies.isEmpty() ? Optional.empty() : Optional.of(movies);
+    }
+
+    public Optional<Long> getMovieVersion(Long id) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.movieVersion(id);
+        }
+        return movieRepository.findVersionById(id);
+    }
+
     public Optional<Movie> getMovieById(Long id) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            return snapshot.movie(id);
+        }
         return movieRepository.findById(id);
     }
 
+    /**
+     * Looks up all ids with a single IN query; the genres and actors of the movies found are
+     * then loaded in batches. Ids that do not exist are absent from the result.
+     */
+    public Map<Long, Movie> getMoviesByIds(Collection<Long> ids) {
+        Map<Long, Movie> found = new HashMap<>();
+        CatalogSnapshot snapshot = catalogReplica.snapshot();
+        if (snapshot != null) {
+            ids.forEach(id -> snapshot.movie(id).ifPresent(movie -> found.put(id, movie)));
+        } else {
+            movieRepository.findAllById(ids).forEach(movie -> found.put(movie.getId(), movie));
+        }
+        return found;
+    }
+
     public Optional<Page<Movie>> getMoviesByGenre(Long genreId, Pageable pageable) {
-        Optional<Genre> genre = genreRepository.findById(genreId);
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null) {
+            return snapshot.moviesByGenre(genreId, pageable);
+        }
+        Optional<Genre> genre = genreService.getGenreById(genreId);
         if (genre.isPresent()) {
             return Optional.of(movieRepository.findByGenres_Id(genreId, pageable));
         } else {
@@ -78,11 +290,18 @@ public class MovieService {
     }
 
     public Optional<Page<Movie>> getMoviesByReleaseYear(int releaseYear, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByReleaseYear(releaseYear, pageable);
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        Page<Movie> movies = snapshot != null
+                ? snapshot.moviesByReleaseYear(releaseYear, pageable)
+                : movieRepository.findByReleaseYear(releaseYear, pageable);
         return movies.isEmpty() ? Optional.empty() : Optional.of(movies);
     }
 
     public Optional<Page<Actor>> getActorsByMovie(Long movieId, Pageable pageable) {
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null) {
+            return snapshot.actorsByMovie(movieId, pageable);
+        }
         Optional<Movie> movie = movieRepository.findById(movieId);
         if (movie.isPresent()) {
             return Optional.of(actorRepository.findByMovieId(movieId, pageable));
@@ -92,7 +311,11 @@ public class MovieService {
     }
 
     public Optional<Page<Movie>> getMoviesByActor(Long actorId, Pageable pageable) {
-        Optional<Actor> actor = actorRepository.findById(actorId);
+        CatalogSnapshot snapshot = catalogReplica.snapshot(pageable);
+        if (snapshot != null) {
+            return snapshot.moviesByActor(actorId, pageable);
+        }
+        Optional<Actor> actor = actorService.getActorById(actorId);
         if (actor.isPresent()) {
             return Optional.of(movieRepository.findByActors_Id(actorId, pageable));
         } else {
@@ -100,48 +323,87 @@ public class MovieService {
         }
     }
 
+    /**
+     * Movies ranked by {@link SimilarityIndex}, or empty if the movie does not exist. Only the
+     * titles of the returned movies are read from the database, in one query.
+     */
+    public Optional<List<SimilarMovieDTO>> getSimilarMovies(Long id, int limit) {
+        Optional<List<SimilarityIndex.Match>> found = similarityIndex.similar(id, limit);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        List<SimilarityIndex.Match> matches = found.get();
+        if (matches.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        Map<Long, MovieSummaryDTO> summaries = movieRepository
+                .findSummariesByIdIn(matches.stream().map(match -> (long) match.movieId()).toList()).stream()
+                .collect(Collectors.toMap(MovieSummaryDTO::getId, Function.identity()));
+        return Optional.of(matches.stream()
+                .filter(match -> summaries.containsKey((long) match.movieId()))
+                .map(match -> {
+                    MovieSummaryDTO summary = summaries.get((long) match.movieId());
+                    return new SimilarMovieDTO(summary.getId(), summary.getTitle(), summary.getReleaseYear(),
+                                               match.sharedGenres(), match.sharedActors(), match.score());
+                })
+                .toList());
+    }
+
+    public boolean isSimilarityIndexReady() {
+        return similarityIndex.isReady();
+    }
+
+    @Transactional
     public Optional<Movie> updateMovie(Long id, MovieUpdateDTO movieUpdateDTO) {
         Optional<Movie> existingMovie = movieRepository.findById(id);
         if (existingMovie.isPresent()) {
             Movie movie = existingMovie.get();
+            // The stats must drop the movie as it was, before any field takes its new value.
+            changeTracker.markChanged(CatalogChangeTracker.Table.MOVIE);
+            catalogStats.movieRemoved(movie);
             movie.setTitle(movieUpdateDTO.getTitle());
             movie.setReleaseYear(movieUpdateDTO.getReleaseYear());
             movie.setDuration(movieUpdateDTO.getDuration());
 
-            Set<Genre> genres = new HashSet<>();
-            if (movieUpdateDTO.getGenreNames() != null) {
-                for (String genreName : movieUpdateDTO.getGenreNames()) {
-                    Genre genre = genreRepository.findByName(genreName)
-                        .orElseThrow(() -> new ResourceNotFoundException("Genre with name " + genreName + " not found"));
-                    genres.add(genre);
-                }
+            List<String> genreNames = movieUpdateDTO.getGenreNames() != null ? movieUpdateDTO.getGenreNames() : List.of();
+            List<String> actorNames = movieUpdateDTO.getActorNames() != null ? movieUpdateDTO.getActorNames() : List.of();
+            Map<String, Genre> genres = genreService.getGenresByNames(genreNames);
+            Map<String, Actor> actors = actorService.getActorsByNames(actorNames);
+
+            StringJoiner missing = new StringJoiner("; ");
+            addMissing(missing, "Genre", "name", genreNames, genres);
+            addMissing(missing, "Actor", "name", actorNames, actors);
+            if (missing.length() > 0) {
+                throw new ResourceNotFoundException(missing.toString());
             }
-            movie.setGenres(genres);
+
+            movie.setGenres(new HashSet<>(genres.values()));
 
             if (movieUpdateDTO.getActorNames() == null) {
             } else if (movieUpdateDTO.getActorNames().isEmpty()) {
                 movie.getActors().clear();
             } else {
-                Set<Actor> actors = new HashSet<>();
-                for (String actorName : movieUpdateDTO.getActorNames()) {
-                    Actor actor = actorRepository.findByName(actorName)
-                        .orElseThrow(() -> new ResourceNotFoundException("Actor with name " + actorName + " not found"));
-                    actors.add(actor);
-                }
-                movie.setActors(actors);
+                movie.setActors(new HashSet<>(actors.values()));
             }
 
+            catalogStats.movieAdded(movie);
+            actorGraph.castChanged(id, actorIds(movie));
+            similarityIndex.movieChanged(id, movie.getReleaseYear(), genreIds(movie), actorIds(movie));
+            suggestionIndex.movieChanged(id, movie.getTitle(), movie.getActors().size());
+            catalogReplica.movieChanged(movie);
             return Optional.of(movieRepository.save(movie));
         } else {
             return Optional.empty();
         }
     }
 
+    @Transactional
     public void deleteMovie(Long id, boolean force) {
         Movie movie = movieRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie with id " + id + " not found"));
 
-        boolean hasAssociations = !movie.getActors().isEmpty() || !movie.getGenres().isEmpty();
+        boolean hasAssociations = movieRepository.existsByIdAndActorsIsNotEmpty(id)
+                || movieRepository.existsByIdAndGenresIsNotEmpty(id);
 
         if (!force && hasAssociations) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
@@ -150,28 +412,54 @@ public class MovieService {
                     "Use force deletion to remove associations.");
         }
 
+        changeTracker.markChanged(CatalogChangeTracker.Table.MOVIE);
+        catalogStats.movieRemoved(movie);
+        actorGraph.castChanged(id, List.of());
+        similarityIndex.movieRemoved(id);
+        suggestionIndex.movieRemoved(id);
+        catalogReplica.movieRemoved(id);
         if (force) {
-            for (Actor actor : movie.getActors()) {
-                actor.getMovies().remove(movie);
-                actorRepository.save(actor);
-            }
+            movieRepository.unlinkAllActors(id);
+            movieRepository.unlinkAllGenres(id);
+        }
 
-            for (Genre genre : movie.getGenres()) {
-                genre.getMovies().remove(movie);
-                genreRepository.save(genre);
-            }
+        movieRepository.bulkDeleteById(id);
+    }
 
-            movie.getActors().clear();
-            movie.getGenres().clear();
+    private static List<Long> genreIds(Movie movie) {
+        return movie.getGenres().stream().map(Genre::getId).toList();
+    }
 
-            movieRepository.save(movie);
-        }
+    private static List<Long> actorIds(Movie movie) {
+        return movie.getActors().stream().map(Actor::getId).toList();
+    }
 
-        movieRepository.deleteById(id);
+    private <K> void addMissing(StringJoiner message, String entity, String key, List<K> requested, Map<K, ?> found) {
+        List<K> missing = CachedLookups.missingKeys(requested, found);
+        if (missing.size() == 1) {
+            message.add(entity + " with " + key + " " + missing.get(0) + " not found");
+        } else if (!missing.isEmpty()) {
+            message.add(entity + "s with " + key + "s " + missing + " not found");
+        }
     }
 
     public Optional<Page<Movie>> searchMoviesByTitle(String title, Pageable pageable) {
-        Page<Movie> movies = movieRepository.findByTitleContainingIgnoreCase(title, pageable);
+        String query = toFullTextQuery(title);
+        Page<Movie> movies = query.isEmpty()
+                ? movieRepository.findByTitleContainingIgnoreCase(title, pageable)
+                : movieRepository.searchByTitle(query, pageable);
         return movies.isEmpty() ? Optional.empty() : Optional.of(movies);
     }
+
+    // Every word of the search term becomes a quoted prefix term, so "matr rel" matches
+    // "The Matrix Reloaded". Terms without letters or digits fall back to the LIKE scan.
+    static String toFullTextQuery(String title) {
+        StringJoiner query = new StringJoiner(" ");
+        for (String token : title.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                query.add("\"" + token + "\"*");
+            }
+        }
+        return query.toString();
+    }
 }
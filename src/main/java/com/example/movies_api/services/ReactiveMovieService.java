@@ -0,0 +1,142 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.MovieSummaryDTO;
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.exceptions.ResourceNotFoundException;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Non-blocking front for {@link MovieService}, used by the /api/v2 endpoints.
+ *
+ * SQLite has no non-blocking driver, so every read still blocks a thread; here it is a thread
+ * of the bounded {@code catalogScheduler} rather than the servlet thread, which is handed back
+ * to the container as soon as the read is queued. Each read runs in its own read-only
+ * transaction and initializes the movies' genres and actors before it ends, because the
+ * response is written on another thread once the persistence context is gone.
+ *
+ * Streams are emitted a page at a time and read the next page only when the subscriber asks
+ * for it, so a slow client holds at most a page or two in memory and no thread while it
+ * catches up.
+ */
+@Service
+public class ReactiveMovieService {
+
+    // One query per association per page, as for the streamed v1 listing.
+    static final int STREAM_PAGE_SIZE = EntityStreamer.CHUNK_SIZE;
+
+    private final MovieService movieService;
+    private final Scheduler scheduler;
+    private final TransactionTemplate readTransaction;
+
+    @Autowired
+    public ReactiveMovieService(MovieService movieService, @Qualifier("catalogScheduler") Scheduler scheduler,
+                                PlatformTransactionManager transactionManager) {
+        this.movieService = movieService;
+        this.scheduler = scheduler;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public Mono<Movie> getMovieById(Long id) {
+        return read(() -> movieService.getMovieById(id).map(ReactiveMovieService::initialized).orElse(null));
+    }
+
+    public Mono<Slice<Movie>> getMovies(Long genre, Integer year, Long actor, long afterId, int size) {
+        PageSource<Movie> source = movies(genre, year, actor);
+        return read(() -> source.read(afterId, size));
+    }
+
+    public Mono<Slice<MovieSummaryDTO>> getMovieSummaries(Long genre, Integer year, Long actor, long afterId, int size) {
+        PageSource<MovieSummaryDTO> source = summaries(genre, year, actor);
+        return read(() -> source.read(afterId, size));
+    }
+
+    public Flux<List<Movie>> streamMovies(Long genre, Integer year, Long actor, long afterId) {
+        return stream(movies(genre, year, actor), afterId, Movie::getId);
+    }
+
+    public Flux<List<MovieSummaryDTO>> streamMovieSummaries(Long genre, Integer year, Long actor, long afterId) {
+        return stream(summaries(genre, year, actor), afterId, MovieSummaryDTO::getId);
+    }
+
+    private PageSource<Movie> movies(Long genre, Integer year, Long actor) {
+        if (genre != null) {
+            return (afterId, size) -> initialized(movieService.getMoviesByGenreAfter(genre, afterId, size)
+                    .orElseThrow(() -> new ResourceNotFoundException("No movies found for genre " + genre)));
+        } else if (year != null) {
+            return (afterId, size) -> initialized(movieService.getMoviesByReleaseYearAfter(year, afterId, size)
+                    .orElseThrow(() -> new ResourceNotFoundException("No movies found for year " + year)));
+        } else if (actor != null) {
+            return (afterId, size) -> initialized(movieService.getMoviesByActorAfter(actor, afterId, size)
+                    .orElseThrow(() -> new ResourceNotFoundException("No movies found for actor " + actor)));
+        }
+        return (afterId, size) -> initialized(movieService.getMoviesAfter(PageCursor.afterId(afterId), size));
+    }
+
+    private PageSource<MovieSummaryDTO> summaries(Long genre, Integer year, Long actor) {
+        if (genre != null) {
+            return (afterId, size) -> movieService.getMovieSummariesByGenre(genre, afterId, PageRequest.of(0, size))
+                    .orElseThrow(() -> new ResourceNotFoundException("No movies found for genre " + genre));
+        } else if (year != null) {
+            return (afterId, size) -> movieService.getMovieSummariesByReleaseYear(year, afterId, PageRequest.of(0, size))
+                    .orElseThrow(() -> new ResourceNotFoundException("No movies found for year " + year));
+        } else if (actor != null) {
+            return (afterId, size) -> movieService.getMovieSummariesByActor(actor, afterId, PageRequest.of(0, size))
+                    .orElseThrow(() -> new ResourceNotFoundException("No movies found for actor " + actor));
+        }
+        return (afterId, size) -> movieService.getMovieSummaries(PageCursor.afterId(afterId), PageRequest.of(0, size));
+    }
+
+    private <T> Mono<T> read(Supplier<T> call) {
+        return Mono.fromCallable(() -> readTransaction.execute(status -> call.get())).subscribeOn(scheduler);
+    }
+
+    // Each request from downstream reads the next page; the last id read is the generator's state.
+    private <T> Flux<List<T>> stream(PageSource<T> source, long afterId, ToLongFunction<T> idOf) {
+        return Flux.<List<T>, Long>generate(() -> afterId, (after, sink) -> {
+                    Slice<T> page = readTransaction.execute(status -> source.read(after, STREAM_PAGE_SIZE));
+                    List<T> content = page.getContent();
+                    if (!content.isEmpty()) {
+                        sink.next(content);
+                    }
+                    if (!page.hasNext()) {
+                        sink.complete();
+                        return after;
+                    }
+                    return idOf.applyAsLong(content.get(content.size() - 1));
+                })
+                .subscribeOn(scheduler);
+    }
+
+    private static Slice<Movie> initialized(Slice<Movie> movies) {
+        movies.forEach(ReactiveMovieService::initialized);
+        return movies;
+    }
+
+    // Movies from the in-memory snapshot are already complete; initializing them is a no-op.
+    private static Movie initialized(Movie movie) {
+        Hibernate.initialize(movie.getGenres());
+        Hibernate.initialize(movie.getActors());
+        return movie;
+    }
+
+    @FunctionalInterface
+    private interface PageSource<T> {
+        Slice<T> read(long afterId, int size);
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.movies_api.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.LongStream;
+
+/**
+ * Finds movies similar to a given one: sharing genres and actors and released close to it.
+ *
+ * Every movie is a sorted int set of features (genre ids negated, actor ids as they are) and
+ * a release year. Candidates come from MinHash locality-sensitive hashing: the feature set's
+ * {@link #HASHES} min-hashes are cut into {@link #BANDS} bands and the movie is chained into
+ * one bucket per band. With one hash per band, a movie sharing a fraction J of its features
+ * with another misses it with probability (1 - J)^16. Candidates are then scored exactly
+ * from their features. All of it lives in int arrays indexed by movie id; nothing is loaded
+ * through JPA.
+ *
+ * The index is built on a background thread once the application is ready and kept current
+ * by the services, which report every committed change to a movie's genres or actors.
+ */
+@Component
+public class SimilarityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarityIndex.class);
+
+    static final int HASHES = 16;
+    static final int BANDS = 16;
+    private static final int ROWS = HASHES / BANDS;
+    // Bounds the work per query when a bucket is crowded by movies that only share popular genres.
+    private static final int MAX_CANDIDATES_PER_BAND = 128;
+    private static final int[] NONE = new int[0];
+    private static final long[] SEEDS = new SplittableRandom(0x5eedL).longs(HASHES).map(seed -> seed | 1).toArray();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int[][] features = new int[0][];
+    private int[] years = NONE;
+    private int[] heads = NONE;
+    private int[] next = NONE;
+    private int movies;
+    private boolean ready;
+    // Changes committed while the index is being built, replayed once it is in place.
+    private List<Runnable> pending;
+
+    @Autowired
+    public SimilarityIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildInBackground() {
+        Thread builder = new Thread(this::build, "similarity-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void build() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.nanoTime();
+        Loaded loaded = readTransaction.execute(status -> load());
+
+        lock.writeLock().lock();
+        try {
+            features = loaded.features;
+            years = loaded.years;
+            heads = NONE;
+            next = NONE;
+            movies = 0;
+            for (int movie = 0; movie < features.length; movie++) {
+                if (features[movie] != null) {
+                    movies++;
+                }
+            }
+            rehash();
+            pending.forEach(Runnable::run);
+            pending = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Similarity index built for {} movies in {} ms", movies, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Records the genres and actors of a created or updated movie.
+    public void movieChanged(long movieId, int releaseYear, Collection<Long> genreIds, Collection<Long> actorIds) {
+        int movie = key(movieId);
+        int[] movieFeatures = features(genreIds, actorIds);
+        afterCommit(() -> put(movie, releaseYear, movieFeatures));
+    }
+
+    public void movieRemoved(long movieId) {
+        int movie = key(movieId);
+        afterCommit(() -> remove(movie));
+    }
+
+    // Force-deleting a genre unlinks it from its movies; rare enough to scan the index for them.
+    public void genreRemoved(long genreId) {
+        int feature = -key(genreId);
+        afterCommit(() -> removeFeature(feature));
+    }
+
+    public void actorRemoved(long actorId) {
+        int feature = key(actorId);
+        afterCommit(() -> removeFeature(feature));
+    }
+
+    /**
+     * Up to {@code limit} movies most similar to the given one, best first. A shared actor
+     * counts 2, a shared genre 1, and the release year adds up to 1 for the same year,
+     * falling off with the distance. Movies sharing neither genres nor actors are left out.
+     * Empty if the movie is not in the index, i.e. does not exist.
+     */
+    public Optional<List<Match>> similar(long movieId, int limit) {
+        if (movieId < 0 || movieId > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+        int movie = key(movieId);
+        lock.readLock().lock();
+        try {
+            int[] own = movie < features.length ? features[movie] : null;
+            if (own == null || own.length == 0) {
+                return own == null ? Optional.empty() : Optional.of(List.of());
+            }
+
+            int[] candidates = new int[BANDS * MAX_CANDIDATES_PER_BAND];
+            int size = 0;
+            int[] signature = signature(own);
+            for (int band = 0; band < BANDS; band++) {
+                int taken = 0;
+                for (int other = heads[bucket(signature, band)]; other != -1 && taken < MAX_CANDIDATES_PER_BAND;
+                     other = next[other * BANDS + band]) {
+                    if (other != movie) {
+                        candidates[size++] = other;
+                        taken++;
+                    }
+                }
+            }
+            Arrays.sort(candidates, 0, size);
+
+            List<Match> matches = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int other = candidates[i];
+                if (i > 0 && candidates[i - 1] == other) {
+                    continue;
+                }
+                Match match = score(own, years[movie], other);
+                if (match.sharedGenres + match.sharedActors > 0) {
+                    matches.add(match);
+                }
+            }
+            matches.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Integer.compare(a.movieId, b.movieId));
+            return Optional.of(matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Match score(int[] own, int year, int other) {
+        int[] theirs = features[other];
+        int sharedGenres = 0;
+        int sharedActors = 0;
+        for (int i = 0, j = 0; i < own.length && j < theirs.length; ) {
+            if (own[i] < theirs[j]) {
+                i++;
+            } else if (own[i] > theirs[j]) {
+                j++;
+            } else {
+                if (own[i] < 0) {
+                    sharedGenres++;
+                } else {
+                    sharedActors++;
+                }
+                i++;
+                j++;
+            }
+        }
+        double yearProximity = 1.0 / (1 + Math.abs(year - years[other]));
+        return new Match(other, sharedGenres, sharedActors, 2 * sharedActors + sharedGenres + yearProximity);
+    }
+
+    private Loaded load() {
+        int capacity = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM movie", Integer.class);
+        Loaded loaded = new Loaded(capacity);
+        jdbcTemplate.query("SELECT id, release_year FROM movie", rs -> {
+            int movie = key(rs.getLong(1));
+            if (movie < capacity) {
+                loaded.features[movie] = NONE;
+                loaded.years[movie] = rs.getInt(2);
+            }
+        });
+        loaded.addFeatures("SELECT movie_id, -genre_id FROM movie_genre ORDER BY movie_id");
+        loaded.addFeatures("SELECT movie_id, actor_id FROM movie_actor ORDER BY movie_id");
+        for (int[] movieFeatures : loaded.features) {
+            if (movieFeatures != null) {
+                Arrays.sort(movieFeatures);
+            }
+        }
+        return loaded;
+    }
+
+    private void afterCommit(Runnable change) {
+        AfterCommit.batch(this, change, this::apply);
+    }
+
+    // Applies the changes of one transaction under a single write lock.
+    private void apply(List<Runnable> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+            } else if (ready) {
+                changes.forEach(Runnable::run);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(int movie, int year, int[] movieFeatures) {
+        if (movie >= features.length) {
+            int capacity = Math.max(movie + 1, features.length * 2);
+            features = Arrays.copyOf(features, capacity);
+            years = Arrays.copyOf(years, capacity);
+            next = Arrays.copyOf(next, capacity * BANDS);
+        }
+        if (features[movie] != null) {
+            unlink(movie);
+        } else {
+            movies++;
+        }
+        features[movie] = movieFeatures;
+        years[movie] = year;
+        if (movies > heads.length / BANDS / 2) {
+            rehash();
+        } else {
+            link(movie);
+        }
+    }
+
+    private void remove(int movie) {
+        if (movie < features.length && features[movie] != null) {
+            unlink(movie);
+            features[movie] = null;
+            movies--;
+        }
+    }
+
+    private void removeFeature(int feature) {
+        for (int movie = 0; movie < features.length; movie++) {
+            int[] movieFeatures = features[movie];
+            if (movieFeatures != null && Arrays.binarySearch(movieFeatures, feature) >= 0) {
+                int[] remaining = Arrays.stream(movieFeatures).filter(value -> value != feature).toArray();
+                put(movie, years[movie], remaining);
+            }
+        }
+    }
+
+    // Sizes the bucket tables to twice the number of movies and chains every movie in again.
+    private void rehash() {
+        int size = Integer.highestOneBit(Math.max(movies, 512) * 4 - 1);
+        heads = new int[size * BANDS];
+        Arrays.fill(heads, -1);
+        next = new int[features.length * BANDS];
+        for (int movie = 0; movie < features.length; movie++) {
+            if (features[movie] != null) {
+                link(movie);
+            }
+        }
+    }
+
+    private void link(int movie) {
+        if (features[movie].length == 0) {
+            return;
+        }
+        int[] signature = signature(features[movie]);
+        for (int band = 0; band < BANDS; band++) {
+            int bucket = bucket(signature, band);
+            next[movie * BANDS + band] = heads[bucket];
+            heads[bucket] = movie;
+        }
+    }
+
+    private void unlink(int movie) {
+        if (features[movie].length == 0) {
+            return;
+        }
+        int[] signature = signature(features[movie]);
+        for (int band = 0; band < BANDS; band++) {
+            int bucket = bucket(signature, band);
+            if (heads[bucket] == movie) {
+                heads[bucket] = next[movie * BANDS + band];
+                continue;
+            }
+            for (int other = heads[bucket]; other != -1; other = next[other * BANDS + band]) {
+                if (next[other * BANDS + band] == movie) {
+                    next[other * BANDS + band] = next[movie * BANDS + band];
+                    break;
+                }
+            }
+        }
+    }
+
+    private int bucket(int[] signature, int band) {
+        long hash = band;
+        for (int row = 0; row < ROWS; row++) {
+            hash = mix(hash * 31 + signature[band * ROWS + row]);
+        }
+        int buckets = heads.length / BANDS;
+        return band * buckets + (int) (hash & (buckets - 1));
+    }
+
+    static int[] signature(int[] movieFeatures) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int feature : movieFeatures) {
+            for (int i = 0; i < HASHES; i++) {
+                signature[i] = Math.min(signature[i], (int) (mix(feature * SEEDS[i]) >>> 33));
+            }
+        }
+        return signature;
+    }
+
+    // The finalizer of SplitMix64: spreads every input bit over the whole result.
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private static int[] features(Collection<Long> genreIds, Collection<Long> actorIds) {
+        return LongStream.concat(genreIds.stream().mapToLong(id -> -id), actorIds.stream().mapToLong(Long::longValue))
+                .mapToInt(Math::toIntExact).distinct().sorted().toArray();
+    }
+
+    private static int key(long id) {
+        return Math.toIntExact(id);
+    }
+
+    public static final class Match {
+        private final int movieId;
+        private final int sharedGenres;
+        private final int sharedActors;
+        private final double score;
+
+        Match(int movieId, int sharedGenres, int sharedActors, double score) {
+            this.movieId = movieId;
+            this.sharedGenres = sharedGenres;
+            this.sharedActors = sharedActors;
+            this.score = score;
+        }
+
+        public int movieId() { return movieId; }
+        public int sharedGenres() { return sharedGenres; }
+        public int sharedActors() { return sharedActors; }
+        public double score() { return score; }
+    }
+
+    private final class Loaded {
+        private final int[][] features;
+        private final int[] years;
+
+        Loaded(int capacity) {
+            features = new int[capacity][];
+            years = new int[capacity];
+        }
+
+        // Appends one feature per row to its movie; rows arrive grouped by movie.
+        void addFeatures(String sql) {
+            int[][] buffer = {new int[16]};
+            int[] current = {-1, 0};
+            jdbcTemplate.query(sql, rs -> {
+                int movie = key(rs.getLong(1));
+                if (movie != current[0]) {
+                    flush(current[0], buffer[0], current[1]);
+                    current[0] = movie;
+                    current[1] = 0;
+                }
+                if (current[1] == buffer[0].length) {
+                    buffer[0] = Arrays.copyOf(buffer[0], current[1] * 2);
+                }
+                buffer[0][current[1]++] = rs.getInt(2);
+            });
+            flush(current[0], buffer[0], current[1]);
+        }
+
+        private void flush(int movie, int[] buffer, int size) {
+            if (movie >= 0 && movie < features.length && features[movie] != null) {
+                int[] existing = features[movie];
+                int[] merged = Arrays.copyOf(existing, existing.length + size);
+                System.arraycopy(buffer, 0, merged, existing.length, size);
+                features[movie] = merged;
+            }
+        }
+    }
+}
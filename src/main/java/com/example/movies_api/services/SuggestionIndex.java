@@ -0,0 +1,583 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.SuggestionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over movie titles and actor names. Every word of a title or name starts an
+ * entry, so "mat" finds "The Matrix". Entries are ranked by popularity: the number of
+ * actors in a movie's cast and the number of movies an actor appears in.
+ *
+ * Each dictionary is a sorted array of (text, word offset) entries, so the entries for a
+ * prefix are one binary-searched range, with a segment tree over their ranks that yields
+ * the top entries of any range without visiting the rest. Writes go to a small sorted
+ * delta that is merged in at query time and folded into new arrays by a rebuild from the
+ * database, which runs every {@code movies.suggest.rebuild-interval} when anything changed
+ * and right away once the delta passes {@link #MAX_DELTA} entries. While a bulk import runs
+ * no rebuild starts, since each would re-read a catalog that is still growing; the import's
+ * rows wait in the delta and one rebuild follows when it finishes.
+ */
+@Component
+public class SuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    static final int MAX_DELTA = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TaskScheduler taskScheduler;
+    private final ActorGraph actorGraph;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final AtomicInteger runningImports = new AtomicInteger();
+
+    private final Dictionary movies = new Dictionary(SuggestionDTO.MOVIE);
+    private final Dictionary actors = new Dictionary(SuggestionDTO.ACTOR);
+    private long sequence;
+    private boolean ready;
+    private boolean changed;
+
+    @Autowired
+    public SuggestionIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           TaskScheduler taskScheduler, ActorGraph actorGraph) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.taskScheduler = taskScheduler;
+        this.actorGraph = actorGraph;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildInBackground() {
+        scheduleRebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${movies.suggest.rebuild-interval}", initialDelayString = "${movies.suggest.rebuild-interval}")
+    void rebuildIfChanged() {
+        if (runningImports.get() > 0) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (!changed) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        rebuild();
+    }
+
+    void rebuild() {
+        try {
+            rebuildFromDatabase();
+        } finally {
+            rebuildScheduled.set(false);
+        }
+    }
+
+    private void rebuildFromDatabase() {
+        long started = System.nanoTime();
+        long rebuiltUpTo;
+        lock.writeLock().lock();
+        try {
+            // Changes applied so far have committed, so the snapshot read below includes them.
+            rebuiltUpTo = sequence;
+            changed = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Base[] bases = readTransaction.execute(status -> new Base[] {
+                Base.load(jdbcTemplate, "SELECT m.id, m.title, COUNT(ma.actor_id) FROM movie m " +
+                        "LEFT JOIN movie_actor ma ON ma.movie_id = m.id GROUP BY m.id"),
+                Base.load(jdbcTemplate, "SELECT a.id, a.name, COUNT(ma.movie_id) FROM actor a " +
+                        "LEFT JOIN movie_actor ma ON ma.actor_id = a.id GROUP BY a.id")
+        });
+
+        lock.writeLock().lock();
+        try {
+            movies.replaceBase(bases[0], rebuiltUpTo);
+            actors.replaceBase(bases[1], rebuiltUpTo);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggestion index rebuilt with {} movies and {} actors in {} ms",
+                bases[0].texts.length, bases[1].texts.length, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Holds back rebuilds until the matching {@link #importFinished()}. */
+    public void importStarted() {
+        runningImports.incrementAndGet();
+    }
+
+    public void importFinished() {
+        if (runningImports.decrementAndGet() > 0) {
+            return;
+        }
+        boolean pending;
+        lock.readLock().lock();
+        try {
+            pending = changed;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (pending) {
+            scheduleRebuild();
+        }
+    }
+
+    public void movieChanged(long movieId, String title, int castSize) {
+        afterCommit(() -> movies.put(movieId, title, castSize, ++sequence));
+    }
+
+    public void movieRemoved(long movieId) {
+        afterCommit(() -> movies.remove(movieId, ++sequence));
+    }
+
+    public void actorChanged(long actorId, String name) {
+        afterCommit(() -> actors.put(actorId, name, actorGraph.movieCount(actorId), ++sequence));
+    }
+
+    public void actorRemoved(long actorId) {
+        afterCommit(() -> actors.remove(actorId, ++sequence));
+    }
+
+    /**
+     * Up to {@code limit} movies and actors with a word starting with {@code prefix}
+     * (case-insensitive), most popular first, then alphabetically.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit, boolean includeMovies, boolean includeActors) {
+        String normalized = prefix.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<Suggestion> found = new ArrayList<>(2 * limit);
+        lock.readLock().lock();
+        try {
+            if (includeMovies) {
+                movies.collect(normalized, limit, found);
+            }
+            if (includeActors) {
+                actors.collect(normalized, limit, found);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        found.sort(Suggestion.ORDER);
+        List<SuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, found.size()));
+        for (int i = 0; i < found.size() && suggestions.size() < limit; i++) {
+            Suggestion suggestion = found.get(i);
+            suggestions.add(new SuggestionDTO(suggestion.type, suggestion.id, suggestion.text));
+        }
+        return suggestions;
+    }
+
+    private void afterCommit(Runnable change) {
+        AfterCommit.batch(this, change, this::apply);
+    }
+
+    // Applies the changes of one transaction under a single write lock.
+    private void apply(List<Runnable> changes) {
+        boolean full;
+        lock.writeLock().lock();
+        try {
+            changes.forEach(Runnable::run);
+            changed = true;
+            full = movies.deltaSize() + actors.deltaSize() > MAX_DELTA;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (full && runningImports.get() == 0) {
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::rebuild, Instant.now());
+        }
+    }
+
+    // Case-insensitive comparison of text from offset on with a lower-case key, limited to the key's length.
+    static int comparePrefix(String text, int offset, String key) {
+        int length = Math.min(text.length() - offset, key.length());
+        for (int i = 0; i < length; i++) {
+            int difference = Character.toLowerCase(text.charAt(offset + i)) - key.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length == key.length() ? 0 : -1;
+    }
+
+    static int compareSuffixes(String a, int aOffset, String b, int bOffset) {
+        int length = Math.min(a.length() - aOffset, b.length() - bOffset);
+        for (int i = 0; i < length; i++) {
+            int difference = Character.toLowerCase(a.charAt(aOffset + i)) - Character.toLowerCase(b.charAt(bOffset + i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return (a.length() - aOffset) - (b.length() - bOffset);
+    }
+
+    static int[] wordStarts(String text) {
+        int[] starts = new int[4];
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i;
+            }
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static final class Suggestion {
+        static final Comparator<Suggestion> ORDER = Comparator.comparingInt((Suggestion s) -> -s.rank)
+                .thenComparing(s -> s.text, String.CASE_INSENSITIVE_ORDER)
+                .thenComparingLong(s -> s.id);
+
+        final String type;
+        final long id;
+        final String text;
+        final int rank;
+
+        Suggestion(String type, long id, String text, int rank) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * One entity type: the base arrays from the last rebuild, plus the entities changed or
+     * removed since then. A changed entity hides its base entries and is looked up in the delta.
+     */
+    private static final class Dictionary {
+        private final String type;
+        private Base base = Base.EMPTY;
+        // Delta entries keyed by lower-case word suffix, then id, so one entity may have several.
+        private final TreeMap<String, Suggestion> delta = new TreeMap<>();
+        private final Map<Long, List<String>> deltaKeys = new HashMap<>();
+        private final Map<Long, Long> changedAt = new HashMap<>();
+
+        Dictionary(String type) {
+            this.type = type;
+        }
+
+        void put(long id, String text, int rank, long sequence) {
+            remove(id, sequence);
+            Suggestion suggestion = new Suggestion(type, id, text, rank);
+            List<String> keys = new ArrayList<>();
+            for (int start : wordStarts(text)) {
+                String key = text.substring(start).toLowerCase(Locale.ROOT) + '\0' + id;
+                delta.put(key, suggestion);
+                keys.add(key);
+            }
+            deltaKeys.put(id, keys);
+        }
+
+        void remove(long id, long sequence) {
+            List<String> keys = deltaKeys.remove(id);
+            if (keys != null) {
+                keys.forEach(delta::remove);
+            }
+            changedAt.put(id, sequence);
+        }
+
+        int deltaSize() {
+            return delta.size();
+        }
+
+        // Keeps the changes made after the rebuild's snapshot was taken.
+        void replaceBase(Base rebuilt, long rebuiltUpTo) {
+            base = rebuilt;
+            changedAt.entrySet().removeIf(change -> {
+                if (change.getValue() > rebuiltUpTo) {
+                    return false;
+                }
+                List<String> keys = deltaKeys.remove(change.getKey());
+                if (keys != null) {
+                    keys.forEach(delta::remove);
+                }
+                return true;
+            });
+        }
+
+        void collect(String prefix, int limit, List<Suggestion> found) {
+            Set<Long> seen = new HashSet<>();
+            int fromDelta = 0;
+            for (Suggestion suggestion : delta.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                if (seen.add(suggestion.id)) {
+                    found.add(suggestion);
+                    fromDelta++;
+                }
+            }
+            base.collect(prefix, limit + fromDelta, changedAt.keySet(), seen, type, found);
+        }
+    }
+
+    /**
+     * Texts and ranks by position, and entries sorted by the lower-case text from a word
+     * start: entryText[i] is the text, entryOffset[i] the offset of the word. tree is a
+     * segment tree holding, for every node, the entry with the highest rank below it.
+     */
+    private static final class Base {
+        static final Base EMPTY = new Base(new long[0], new String[0], new int[0], new int[0], new int[0]);
+
+        final long[] ids;
+        final String[] texts;
+        final int[] ranks;
+        final int[] entryText;
+        final int[] entryOffset;
+        final int[] tree;
+        final int leaves;
+
+        Base(long[] ids, String[] texts, int[] ranks, int[] entryText, int[] entryOffset) {
+            this.ids = ids;
+            this.texts = texts;
+            this.ranks = ranks;
+            this.entryText = entryText;
+            this.entryOffset = entryOffset;
+            this.leaves = Math.max(1, Integer.highestOneBit(Math.max(1, entryText.length) * 2 - 1));
+            this.tree = new int[2 * leaves];
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < entryText.length; i++) {
+                tree[leaves + i] = i;
+            }
+            for (int node = leaves - 1; node > 0; node--) {
+                tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Base load(JdbcTemplate jdbcTemplate, String sql) {
+            List<String> texts = new ArrayList<>();
+            long[][] ids = {new long[1024]};
+            int[][] ranks = {new int[1024]};
+            jdbcTemplate.query(sql, rs -> {
+                int row = texts.size();
+                if (row == ids[0].length) {
+                    ids[0] = Arrays.copyOf(ids[0], row * 2);
+                    ranks[0] = Arrays.copyOf(ranks[0], row * 2);
+                }
+                ids[0][row] = rs.getLong(1);
+                ranks[0][row] = rs.getInt(3);
+                texts.add(rs.getString(2));
+            });
+
+            String[] textArray = texts.toArray(String[]::new);
+            int[] unsortedText = new int[textArray.length];
+            int[] unsortedOffset = new int[textArray.length];
+            int size = 0;
+            for (int i = 0; i < textArray.length; i++) {
+                for (int start : wordStarts(textArray[i])) {
+                    if (size == unsortedText.length) {
+                        unsortedText = Arrays.copyOf(unsortedText, size * 2);
+                        unsortedOffset = Arrays.copyOf(unsortedOffset, size * 2);
+                    }
+                    unsortedText[size] = i;
+                    unsortedOffset[size++] = start;
+                }
+            }
+            int[] order = new int[size];
+            Arrays.setAll(order, i -> i);
+            new SuffixSort(textArray, unsortedText, unsortedOffset).sort(order, 0, size, 0);
+            int[] entryText = new int[size];
+            int[] entryOffset = new int[size];
+            for (int i = 0; i < size; i++) {
+                entryText[i] = unsortedText[order[i]];
+                entryOffset[i] = unsortedOffset[order[i]];
+            }
+            return new Base(Arrays.copyOf(ids[0], textArray.length), textArray,
+                    Arrays.copyOf(ranks[0], textArray.length), entryText, entryOffset);
+        }
+
+        // Adds the best entries of the prefix's range, skipping hidden and already seen ids.
+        void collect(String prefix, int limit, Set<Long> hidden, Set<Long> seen, String type, List<Suggestion> found) {
+            int from = lowerBound(prefix, false);
+            int to = lowerBound(prefix, true);
+            if (from >= to) {
+                return;
+            }
+            // Ranges ordered by their best entry; taking one splits its range around it.
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compare(a[2], b[2]));
+            ranges.add(new int[] {from, to, best(from, to)});
+            int added = 0;
+            while (!ranges.isEmpty() && added < limit) {
+                int[] range = ranges.poll();
+                int entry = range[2];
+                int text = entryText[entry];
+                long id = ids[text];
+                if (!hidden.contains(id) && seen.add(id)) {
+                    found.add(new Suggestion(type, id, texts[text], ranks[text]));
+                    added++;
+                }
+                if (range[0] < entry) {
+                    ranges.add(new int[] {range[0], entry, best(range[0], entry)});
+                }
+                if (entry + 1 < range[1]) {
+                    ranges.add(new int[] {entry + 1, range[1], best(entry + 1, range[1])});
+                }
+            }
+        }
+
+        // First entry whose text is not below the prefix, or (past) not starting with it.
+        private int lowerBound(String prefix, boolean past) {
+            int low = 0;
+            int high = entryText.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int comparison = comparePrefix(texts[entryText[middle]], entryOffset[middle], prefix);
+                if (comparison < 0 || (past && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int best(int from, int to) {
+            int result = -1;
+            for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+                if ((low & 1) == 1) {
+                    result = better(result, tree[low++]);
+                }
+                if ((high & 1) == 1) {
+                    result = better(result, tree[--high]);
+                }
+            }
+            return result;
+        }
+
+        private int better(int a, int b) {
+            if (a == -1 || b == -1) {
+                return a == -1 ? b : a;
+            }
+            return compare(a, b) <= 0 ? a : b;
+        }
+
+        // Higher rank first, then entry order, which is alphabetical.
+        private int compare(int a, int b) {
+            int difference = Integer.compare(ranks[entryText[b]], ranks[entryText[a]]);
+            return difference != 0 ? difference : Integer.compare(a, b);
+        }
+    }
+
+    /**
+     * Three-way radix quicksort of entry numbers by the lower-case text from their word start,
+     * the order of {@link #compareSuffixes}. It partitions on one character at a time, so shared
+     * prefixes are not compared again, and works on an int array in place. Equal texts keep
+     * their entry order.
+     */
+    static final class SuffixSort {
+        private static final int INSERTION_SORT_SIZE = 16;
+
+        private final String[] texts;
+        private final int[] text;
+        private final int[] offset;
+
+        SuffixSort(String[] texts, int[] text, int[] offset) {
+            this.texts = texts;
+            this.text = text;
+            this.offset = offset;
+        }
+
+        // Sorts order[from, to), whose entries share their first depth characters.
+        void sort(int[] order, int from, int to, int depth) {
+            while (to - from > INSERTION_SORT_SIZE) {
+                int pivot = charAt(order[(from + to) >>> 1], depth);
+                int less = from;
+                int greater = to - 1;
+                int i = from;
+                while (i <= greater) {
+                    int c = charAt(order[i], depth);
+                    if (c < pivot) {
+                        swap(order, less++, i++);
+                    } else if (c > pivot) {
+                        swap(order, i, greater--);
+                    } else {
+                        i++;
+                    }
+                }
+                sort(order, from, less, depth);
+                if (pivot >= 0) {
+                    sort(order, less, greater + 1, depth + 1);
+                } else {
+                    Arrays.sort(order, less, greater + 1);
+                }
+                from = greater + 1;
+            }
+            for (int i = from + 1; i < to; i++) {
+                int entry = order[i];
+                int j = i;
+                while (j > from && compare(order[j - 1], entry, depth) > 0) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = entry;
+            }
+        }
+
+        private int compare(int a, int b, int depth) {
+            int difference = compareSuffixes(texts[text[a]], offset[a] + depth, texts[text[b]], offset[b] + depth);
+            return difference != 0 ? difference : Integer.compare(a, b);
+        }
+
+        // The lower-case character at depth, or -1 past the end of the text.
+        private int charAt(int entry, int depth) {
+            String value = texts[text[entry]];
+            int index = offset[entry] + depth;
+            return index < value.length() ? Character.toLowerCase(value.charAt(index)) : -1;
+        }
+
+        private static void swap(int[] order, int i, int j) {
+            int entry = order[i];
+            order[i] = order[j];
+            order[j] = entry;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Schema as created by Hibernate before migrations were introduced. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and start from V2.
+CREATE TABLE actor (id integer, birth_date date, name varchar(100) not null, primary key (id));
+CREATE TABLE genre (id integer, name varchar(100) not null, primary key (id));
+CREATE TABLE movie (id integer, duration integer not null, release_year integer not null, title varchar(100) not null, primary key (id));
+CREATE TABLE movie_actor (movie_id bigint not null, actor_id bigint not null, primary key (movie_id, actor_id));
+CREATE TABLE movie_genre (movie_id bigint not null, genre_id bigint not null, primary key (movie_id, genre_id));
@@ -0,0 +1,13 @@
+-- Reverse lookups from a genre or actor to its movies. The join tables' primary keys lead with
+-- movie_id, so without these every findByGenres_Id / findByActors_Id page scanned the whole table;
+-- both are covering for the join, which reads only the two ids.
+CREATE INDEX IF NOT EXISTS idx_movie_genre_genre ON movie_genre (genre_id, movie_id);
+CREATE INDEX IF NOT EXISTS idx_movie_actor_actor ON movie_actor (actor_id, movie_id);
+
+-- Year and duration filters, with the id so keyset pages by release year read in index order.
+CREATE INDEX IF NOT EXISTS idx_movie_release_year ON movie (release_year, id);
+CREATE INDEX IF NOT EXISTS idx_movie_duration ON movie (duration, id);
+
+-- Lookups by name (findByName, findByNameIn) for updates and bulk import.
+CREATE INDEX IF NOT EXISTS idx_genre_name ON genre (name);
+CREATE INDEX IF NOT EXISTS idx_actor_name ON actor (name);
@@ -0,0 +1,16 @@
+-- FTS5 index behind title search, kept in sync with the movie table by triggers. The insert
+-- trigger is dropped and recreated around each chunk by MovieImportService.
+CREATE VIRTUAL TABLE IF NOT EXISTS movie_title_fts USING fts5(title, content='movie', content_rowid='id', prefix='2 3');
+
+CREATE TRIGGER IF NOT EXISTS movie_title_fts_ai AFTER INSERT ON movie BEGIN
+    INSERT INTO movie_title_fts(rowid, title) VALUES (new.id, new.title);
+END;
+CREATE TRIGGER IF NOT EXISTS movie_title_fts_ad AFTER DELETE ON movie BEGIN
+    INSERT INTO movie_title_fts(movie_title_fts, rowid, title) VALUES ('delete', old.id, old.title);
+END;
+CREATE TRIGGER IF NOT EXISTS movie_title_fts_au AFTER UPDATE OF title ON movie BEGIN
+    INSERT INTO movie_title_fts(movie_title_fts, rowid, title) VALUES ('delete', old.id, old.title);
+    INSERT INTO movie_title_fts(rowid, title) VALUES (new.id, new.title);
+END;
+
+INSERT INTO movie_title_fts(movie_title_fts) VALUES ('rebuild');
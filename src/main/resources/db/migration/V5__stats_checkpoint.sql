@@ -0,0 +1,20 @@
+-- Checkpoint of the in-memory aggregates behind /api/stats (see CatalogStats). The single
+-- stats_checkpoint row holds the totals and whether stats_counter matches the catalog; every
+-- write transaction clears the flag, so after a crash the aggregates are rebuilt instead.
+CREATE TABLE stats_checkpoint (
+    id integer primary key check (id = 1),
+    valid integer not null default 0,
+    movies integer not null default 0,
+    total_duration integer not null default 0,
+    genres integer not null default 0,
+    actors integer not null default 0
+);
+INSERT INTO stats_checkpoint (id) VALUES (1);
+
+CREATE TABLE stats_counter (
+    kind varchar(10) not null,
+    group_key integer not null,
+    movies integer not null,
+    total_duration integer not null,
+    primary key (kind, group_key)
+) WITHOUT ROWID;
@@ -0,0 +1,44 @@
+-- Append-only log of catalog changes behind /api/changes. Triggers write it in the same
+-- transaction as the change itself, so every committed write is logged exactly once, including
+-- the JDBC paths (bulk import, force deletes) that bypass JPA. Changes to a movie's genres or
+-- actors bump its version and are logged as updates of the movie. AUTOINCREMENT keeps sequence
+-- numbers from being reused, and since SQLite runs one write transaction at a time they become
+-- visible in order: a reader never sees a sequence number before all smaller ones.
+CREATE TABLE change_log (
+    seq integer primary key autoincrement,
+    entity varchar(10) not null,
+    entity_id integer not null,
+    operation varchar(10) not null,
+    version integer,
+    changed_at integer not null default (cast((julianday('now') - 2440587.5) * 86400000 as integer))
+);
+
+CREATE TRIGGER movie_change_log_ai AFTER INSERT ON movie BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('movie', new.id, 'create', new.version);
+END;
+CREATE TRIGGER movie_change_log_au AFTER UPDATE ON movie BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('movie', new.id, 'update', new.version);
+END;
+CREATE TRIGGER movie_change_log_ad AFTER DELETE ON movie BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('movie', old.id, 'delete', old.version);
+END;
+
+CREATE TRIGGER actor_change_log_ai AFTER INSERT ON actor BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('actor', new.id, 'create', new.version);
+END;
+CREATE TRIGGER actor_change_log_au AFTER UPDATE ON actor BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('actor', new.id, 'update', new.version);
+END;
+CREATE TRIGGER actor_change_log_ad AFTER DELETE ON actor BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('actor', old.id, 'delete', old.version);
+END;
+
+CREATE TRIGGER genre_change_log_ai AFTER INSERT ON genre BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('genre', new.id, 'create', new.version);
+END;
+CREATE TRIGGER genre_change_log_au AFTER UPDATE ON genre BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('genre', new.id, 'update', new.version);
+END;
+CREATE TRIGGER genre_change_log_ad AFTER DELETE ON genre BEGIN
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('genre', old.id, 'delete', old.version);
+END;
@@ -0,0 +1,45 @@
+-- Modification times behind the modifiedSince listings, in epoch milliseconds from the same
+-- clock as change_log.changed_at. SQLite cannot add a column with a non-constant default, so
+-- rows start at 0 (unchanged since before tracking began) and are stamped by triggers: the
+-- insert triggers stamp new rows that were not inserted with a time (the bulk import stamps its
+-- own rows to save an update per row), and the change log's update triggers are replaced by ones
+-- that stamp the row before logging it. Updates never set updated_at themselves, so a stamp is
+-- recognised by the column changing and is not logged as another update.
+ALTER TABLE movie ADD COLUMN updated_at integer not null default 0;
+ALTER TABLE actor ADD COLUMN updated_at integer not null default 0;
+ALTER TABLE genre ADD COLUMN updated_at integer not null default 0;
+
+CREATE INDEX idx_movie_updated_at ON movie (updated_at, id);
+CREATE INDEX idx_actor_updated_at ON actor (updated_at, id);
+CREATE INDEX idx_genre_updated_at ON genre (updated_at, id);
+
+-- The deletes in the change log are the tombstones of deleted rows.
+CREATE INDEX idx_change_log_deletes ON change_log (entity, changed_at) WHERE operation = 'delete';
+
+DROP TRIGGER movie_change_log_au;
+DROP TRIGGER actor_change_log_au;
+DROP TRIGGER genre_change_log_au;
+
+CREATE TRIGGER movie_updated_at_ai AFTER INSERT ON movie WHEN new.updated_at = 0 BEGIN
+    UPDATE movie SET updated_at = cast((julianday('now') - 2440587.5) * 86400000 as integer) WHERE id = new.id;
+END;
+CREATE TRIGGER movie_change_log_au AFTER UPDATE ON movie WHEN new.updated_at IS old.updated_at BEGIN
+    UPDATE movie SET updated_at = cast((julianday('now') - 2440587.5) * 86400000 as integer) WHERE id = new.id;
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('movie', new.id, 'update', new.version);
+END;
+
+CREATE TRIGGER actor_updated_at_ai AFTER INSERT ON actor WHEN new.updated_at = 0 BEGIN
+    UPDATE actor SET updated_at = cast((julianday('now') - 2440587.5) * 86400000 as integer) WHERE id = new.id;
+END;
+CREATE TRIGGER actor_change_log_au AFTER UPDATE ON actor WHEN new.updated_at IS old.updated_at BEGIN
+    UPDATE actor SET updated_at = cast((julianday('now') - 2440587.5) * 86400000 as integer) WHERE id = new.id;
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('actor', new.id, 'update', new.version);
+END;
+
+CREATE TRIGGER genre_updated_at_ai AFTER INSERT ON genre WHEN new.updated_at = 0 BEGIN
+    UPDATE genre SET updated_at = cast((julianday('now') - 2440587.5) * 86400000 as integer) WHERE id = new.id;
+END;
+CREATE TRIGGER genre_change_log_au AFTER UPDATE ON genre WHEN new.updated_at IS old.updated_at BEGIN
+    UPDATE genre SET updated_at = cast((julianday('now') - 2440587.5) * 86400000 as integer) WHERE id = new.id;
+    INSERT INTO change_log (entity, entity_id, operation, version) VALUES ('genre', new.id, 'update', new.version);
+END;
@@ -0,0 +1,14 @@
+-- MovieImportService indexes the titles of each chunk it writes with one statement. Dropping the
+-- FTS insert trigger around the chunk changed the schema, so every pooled connection had to
+-- re-prepare its statements afterwards. The import instead raises this flag inside the chunk's
+-- transaction and lowers it before committing, so no other connection ever sees it raised.
+CREATE TABLE bulk_import (
+    id integer primary key check (id = 1),
+    active integer not null default 0
+);
+INSERT INTO bulk_import (id) VALUES (1);
+
+DROP TRIGGER IF EXISTS movie_title_fts_ai;
+CREATE TRIGGER movie_title_fts_ai AFTER INSERT ON movie WHEN (SELECT active FROM bulk_import WHERE id = 1) = 0 BEGIN
+    INSERT INTO movie_title_fts(rowid, title) VALUES (new.id, new.title);
+END;
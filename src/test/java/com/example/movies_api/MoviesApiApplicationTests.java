@@ -3,7 +3,7 @@ package com.example.movies_api;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/application-tests.db")
 class MoviesApiApplicationTests {
 
 	@Test
@@ -0,0 +1,173 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.ChangeBatchDTO;
+import com.example.movies_api.dto.ChangeDTO;
+import com.example.movies_api.dto.PageCursor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/change-feed-tests.db")
+@AutoConfigureMockMvc
+class ChangeControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void logsEveryWriteInOrder() throws Exception {
+        long head = latest();
+        long genreId = create("/api/genres", "{\"name\":\"Change Genre " + System.nanoTime() + "\"}");
+        long movieId = create("/api/movies?genreIds=" + genreId, "{\"title\":\"Changed\",\"releaseYear\":1999,\"duration\":90}");
+        mockMvc.perform(patch("/api/movies/" + movieId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Changed again\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/genres/" + genreId + "?force=true")).andExpect(status().isNoContent());
+
+        ChangeBatchDTO batch = poll("/api/changes?since=" + head);
+        List<ChangeDTO> changes = batch.getChanges();
+        assertThat(changes).extracting(ChangeDTO::getSeq).isSorted().doesNotHaveDuplicates();
+        assertThat(changes.get(0).getSeq()).isGreaterThan(head);
+        assertThat(batch.getNext()).isEqualTo(changes.get(changes.size() - 1).getSeq());
+        assertThat(changes).extracting(ChangeDTO::getEntity, ChangeDTO::getId, ChangeDTO::getOperation)
+                .startsWith(tuple("genre", genreId, "create"), tuple("movie", movieId, "create"))
+                .contains(tuple("movie", movieId, "update"))
+                .endsWith(tuple("genre", genreId, "delete"));
+
+        assertThat(poll("/api/changes?since=" + batch.getNext()).getChanges()).isEmpty();
+        assertThat(poll("/api/changes?since=" + head + "&limit=2").getChanges()).hasSize(2);
+        mockMvc.perform(get("/api/changes?since=-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/changes?limit=1001")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void waitingPollIsAnsweredByTheNextCommit() throws Exception {
+        MvcResult waiting = mockMvc.perform(get("/api/changes?wait=30&since=" + latest()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long genreId = create("/api/genres", "{\"name\":\"Awaited Genre " + System.nanoTime() + "\"}");
+        ChangeBatchDTO batch = (ChangeBatchDTO) waiting.getAsyncResult(10_000);
+        assertThat(batch.getChanges()).extracting(ChangeDTO::getEntity, ChangeDTO::getId, ChangeDTO::getOperation)
+                .containsExactly(tuple("genre", genreId, "create"));
+    }
+
+    @Test
+    void modifiedSinceReturnsChangedRowsAndDeletedIds() throws Exception {
+        long since = read("/api/movies?modifiedSince=0&size=1").get("lastModified").asLong();
+        long genreId = create("/api/genres", "{\"name\":\"Delta Genre " + System.nanoTime() + "\"}");
+        long first = create("/api/movies?genreIds=" + genreId, "{\"title\":\"Kept\",\"releaseYear\":2001,\"duration\":90}");
+        long second = create("/api/movies", "{\"title\":\"Patched\",\"releaseYear\":2002,\"duration\":90}");
+        long third = create("/api/movies", "{\"title\":\"Deleted\",\"releaseYear\":2003,\"duration\":90}");
+        mockMvc.perform(patch("/api/movies/" + second).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Patched again\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/movies/" + third + "?force=true")).andExpect(status().isNoContent());
+
+        // Pages of one row, so the sync has to follow the cursor.
+        List<Long> ids = new ArrayList<>();
+        JsonNode page = null;
+        String after = "";
+        do {
+            MvcResult result = mockMvc.perform(get("/api/movies?size=1&modifiedSince=" + since + "&after=" + after))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            page = objectMapper.readTree(result.getResponse().getContentAsString());
+            page.get("items").forEach(movie -> ids.add(movie.get("id").asLong()));
+            after = result.getResponse().getHeader(CursorPages.NEXT_CURSOR_HEADER);
+            if (after != null) {
+                assertThat(page.get("deletedIds")).isEmpty();
+            }
+        } while (after != null);
+
+        assertThat(ids).containsSubsequence(first, second).doesNotContain(third);
+        assertThat(page.get("deletedIds")).extracting(JsonNode::asLong).contains(third).doesNotContain(first, second);
+        assertThat(page.get("lastModified").asLong()).isGreaterThanOrEqualTo(since);
+        assertThat(read("/api/genres?modifiedSince=" + since).get("items"))
+                .extracting(genre -> genre.get("id").asLong()).contains(genreId);
+
+        mockMvc.perform(get("/api/movies?modifiedSince=-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/movies?modifiedSince=" + since + "&after=" + PageCursor.afterId(first).encode()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/movies?after=" + PageCursor.afterUpdatedAt(since, first).encode()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void renamingAGenreListsItsMoviesInTheMovieDelta() throws Exception {
+        String name = "Renamed Genre " + System.nanoTime();
+        long genreId = create("/api/genres", "{\"name\":\"Old " + name + "\"}");
+        long linked = create("/api/movies?genreIds=" + genreId, "{\"title\":\"Linked\",\"releaseYear\":2004,\"duration\":90}");
+        long unlinked = create("/api/movies", "{\"title\":\"Unlinked\",\"releaseYear\":2004,\"duration\":90}");
+        // The sync time is that of the last change and rows stamped exactly then are sent again,
+        // so an unrelated write a moment later keeps the movies out of the next delta.
+        Thread.sleep(5);
+        create("/api/genres", "{\"name\":\"Marker " + name + "\"}");
+        long since = read("/api/movies?modifiedSince=0&size=1").get("lastModified").asLong();
+        Thread.sleep(5);
+
+        mockMvc.perform(patch("/api/genres/" + genreId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\"}"))
+                .andExpect(status().isOk());
+
+        JsonNode movies = read("/api/movies?modifiedSince=" + since).get("items");
+        assertThat(movies).extracting(movie -> movie.get("id").asLong()).contains(linked).doesNotContain(unlinked);
+        JsonNode movie = null;
+        for (JsonNode item : movies) {
+            if (item.get("id").asLong() == linked) {
+                movie = item;
+            }
+        }
+        assertThat(movie.get("genres")).extracting(genre -> genre.get("name").asText()).containsExactly(name);
+    }
+
+    private JsonNode read(String uri) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private long latest() throws Exception {
+        long since = 0;
+        while (true) {
+            ChangeBatchDTO batch = poll("/api/changes?limit=1000&since=" + since);
+            if (batch.getChanges().isEmpty()) {
+                return since;
+            }
+            since = batch.getNext();
+        }
+    }
+
+    private ChangeBatchDTO poll(String uri) throws Exception {
+        MvcResult result = mockMvc.perform(get(uri)).andExpect(request().asyncStarted()).andReturn();
+        return (ChangeBatchDTO) result.getAsyncResult();
+    }
+
+    private long create(String uri, String body) throws Exception {
+        String response = mockMvc.perform(post(uri).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode created = objectMapper.readTree(response);
+        return created.get("id").asLong();
+    }
+}
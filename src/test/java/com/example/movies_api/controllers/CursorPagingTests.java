@@ -0,0 +1,133 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.repositories.ActorRepository;
+import com.example.movies_api.repositories.GenreRepository;
+import com.example.movies_api.repositories.MovieRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/cursor-paging-tests.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class CursorPagingTests {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seedCatalog() {
+        movieRepository.deleteAll();
+        genreRepository.deleteAll();
+        actorRepository.deleteAll();
+
+        // Years out of id order, so the release-year listing differs from the id listing and
+        // its pages end both inside a year and on a year boundary.
+        for (int year : new int[] {2001, 1999, 2000, 1999, 2001, 2000, 1999}) {
+            movieRepository.save(new Movie("Paged " + year, year, 100));
+        }
+        for (int i = 0; i < 7; i++) {
+            genreRepository.save(new Genre("Paged Genre " + i));
+            actorRepository.save(new Actor("Paged Actor " + i, LocalDate.of(1970 + i, 1, 1)));
+        }
+    }
+
+    @Test
+    void walksMoviesInIdOrder() throws Exception {
+        assertThat(walk("/api/movies", "")).containsExactlyElementsOf(ids("SELECT id FROM movie ORDER BY id"));
+    }
+
+    @Test
+    void walksMoviesByReleaseYearAcrossYearBoundaries() throws Exception {
+        assertThat(walk("/api/movies?sort=releaseYear", ""))
+                .containsExactlyElementsOf(ids("SELECT id FROM movie ORDER BY release_year, id"));
+    }
+
+    @Test
+    void walksActorsAndGenresInIdOrder() throws Exception {
+        assertThat(walk("/api/actors", "")).containsExactlyElementsOf(ids("SELECT id FROM actor ORDER BY id"));
+        assertThat(walk("/api/genres", "")).containsExactlyElementsOf(ids("SELECT id FROM genre ORDER BY id"));
+    }
+
+    @Test
+    void rejectsCursorsFromAListingInAnotherOrder() throws Exception {
+        String byYear = PageCursor.afterReleaseYear(1999, 1).encode();
+        String byId = PageCursor.afterId(1).encode();
+        for (String url : List.of("/api/movies?after=" + byYear, "/api/movies?sort=releaseYear&after=" + byId,
+                "/api/movies?genre=1&after=" + byYear, "/api/actors?after=" + byYear, "/api/genres?after=" + byYear)) {
+            mockMvc.perform(get(url)).andExpect(status().isBadRequest());
+        }
+    }
+
+    // Follows X-Next-Cursor from the first page to the last, checking that no page counts rows.
+    private List<Long> walk(String url, String after) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String separator = url.contains("?") ? "&" : "?";
+        List<Long> ids = new ArrayList<>();
+        int pages = 0;
+        while (after != null) {
+            statistics.clear();
+            MvcResult result = mockMvc.perform(get(url + separator + "size=" + PAGE_SIZE + "&after=" + after))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertThat(statistics.getQueries()).as(url).isNotEmpty().noneMatch(query -> query.toLowerCase().contains("count("));
+
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            page.forEach(item -> ids.add(item.get("id").asLong()));
+            after = result.getResponse().getHeader(CursorPages.NEXT_CURSOR_HEADER);
+            // Seven rows in pages of three: the last page is short, not empty, and carries no cursor.
+            assertThat(page.size()).as(url).isEqualTo(after != null ? PAGE_SIZE : 1);
+            pages++;
+        }
+        assertThat(pages).as(url).isGreaterThan(1);
+        return ids;
+    }
+
+    private List<Long> ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.repositories.ActorRepository;
+import com.example.movies_api.repositories.GenreRepository;
+import com.example.movies_api.repositories.MovieRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/http-caching-tests.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class HttpCachingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Genre genre;
+    private Movie movie;
+
+    @BeforeEach
+    void seedCatalog() {
+        movieRepository.deleteAll();
+        genreRepository.deleteAll();
+        actorRepository.deleteAll();
+
+        genre = genreRepository.save(new Genre("Drama"));
+        movie = new Movie("The Movie", 1999, 120);
+        movie.setGenres(Set.of(genre));
+        movie = movieRepository.save(movie);
+    }
+
+    @Test
+    void unchangedListingIsRevalidatedWithoutQueries() throws Exception {
+        String etag = etagOf("/api/movies?size=10");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/movies?size=10").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void streamedListingsVaryOnAccept() throws Exception {
+        String json = mockMvc.perform(get("/api/movies")).andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String ndjson = mockMvc.perform(get("/api/movies").accept(MediaType.APPLICATION_NDJSON)).andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(ndjson).isNotEqualTo(json);
+    }
+
+    @Test
+    void renamingAGenreInvalidatesListingsAndTheMoviesThatEmbedIt() throws Exception {
+        String genres = etagOf("/api/genres");
+        String movies = etagOf("/api/movies?size=10");
+        String single = etagOf("/api/movies/" + movie.getId());
+        String genreEtag = etagOf("/api/genres/" + genre.getId());
+
+        mockMvc.perform(patch("/api/genres/" + genre.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Thriller\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/genres").header(HttpHeaders.IF_NONE_MATCH, genres)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/movies?size=10").header(HttpHeaders.IF_NONE_MATCH, movies)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/movies/" + movie.getId()).header(HttpHeaders.IF_NONE_MATCH, single))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/genres/" + genre.getId()).header(HttpHeaders.IF_NONE_MATCH, genreEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/genres/" + genre.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etagOf("/api/genres/" + genre.getId())))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).as(url).isNotBlank();
+        return etag;
+    }
+}
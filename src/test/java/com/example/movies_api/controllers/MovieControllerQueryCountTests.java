@@ -0,0 +1,157 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.repositories.ActorRepository;
+import com.example.movies_api.repositories.GenreRepository;
+import com.example.movies_api.repositories.MovieRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/query-count-tests.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class MovieControllerQueryCountTests {
+
+    // One query for the page of movies plus one batched query per association.
+    private static final long MAX_STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Genre genre;
+    private Actor actor;
+
+    @BeforeEach
+    void seedCatalog() {
+        movieRepository.deleteAll();
+        genreRepository.deleteAll();
+        actorRepository.deleteAll();
+
+        genre = genreRepository.save(new Genre("Drama"));
+        Genre other = genreRepository.save(new Genre("Comedy"));
+        actor = actorRepository.save(new Actor("Alice Johnson", LocalDate.of(1985, 6, 14)));
+
+        List<Actor> cast = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            cast.add(actorRepository.save(new Actor("Actor " + i, LocalDate.of(1970 + i, 1, 1))));
+        }
+
+        for (int i = 0; i < 30; i++) {
+            Movie movie = new Movie("The Movie " + i, 1999, 100 + i);
+            movie.setGenres(Set.of(genre, other));
+            movie.setActors(Set.of(actor, cast.get(i % 5), cast.get((i + 1) % 5)));
+            movieRepository.save(movie);
+        }
+    }
+
+    @Test
+    void listEndpointsUseConstantStatementCountPerPage() throws Exception {
+        List<String> endpoints = List.of(
+                "/api/movies",
+                "/api/movies?genre=" + genre.getId(),
+                "/api/movies?actor=" + actor.getId(),
+                "/api/movies?year=1999",
+                "/api/movies/search?title=movie");
+
+        for (String endpoint : endpoints) {
+            String separator = endpoint.contains("?") ? "&" : "?";
+            // warm the genre/actor lookup caches so both measurements see the same state
+            statementsFor(endpoint + separator + "page=0&size=1");
+            long smallPage = statementsFor(endpoint + separator + "page=0&size=5");
+            long largePage = statementsFor(endpoint + separator + "page=0&size=25");
+
+            assertThat(largePage).as(endpoint).isEqualTo(smallPage);
+            assertThat(largePage).as(endpoint).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE + 2);
+        }
+    }
+
+    @Test
+    void unfilteredPageLoadsAssociationsInBatches() throws Exception {
+        assertThat(statementsFor("/api/movies?size=50")).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void summaryViewReadsEachPageInOneStatementWithoutEntities() throws Exception {
+        List<String> endpoints = List.of(
+                "/api/movies?view=summary&size=25",
+                "/api/movies?view=summary&year=1999&size=25",
+                "/api/movies?view=summary&after=&size=25",
+                "/api/movies/search?title=movie&view=summary&size=25");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String endpoint : endpoints) {
+            assertThat(statementsFor(endpoint)).as(endpoint).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).as(endpoint).isZero();
+        }
+        mockMvc.perform(get("/api/movies?view=summary&size=1"))
+                .andExpect(jsonPath("$[0].title").exists())
+                .andExpect(jsonPath("$[0].genres").doesNotExist());
+    }
+
+    @Test
+    void batchGetLoadsAllIdsInOneQueryAndKeepsTheirOrder() throws Exception {
+        List<Long> ids = new ArrayList<>(movieRepository.findAll().stream().map(Movie::getId).toList());
+        Collections.reverse(ids);
+        long missing = ids.get(0) + 1000;
+        ids.add(1, missing);
+        ids.add(ids.get(2));
+        String idList = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        assertThat(statementsFor("/api/movies?ids=" + idList)).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+        mockMvc.perform(post("/api/movies/batch-get").contentType(MediaType.APPLICATION_JSON).content("[" + idList + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(30))
+                .andExpect(jsonPath("$.items[0].id").value(ids.get(0)))
+                .andExpect(jsonPath("$.items[1].id").value(ids.get(2)))
+                .andExpect(jsonPath("$.items[29].genres.length()").value(2))
+                .andExpect(jsonPath("$.missingIds.length()").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(missing));
+        mockMvc.perform(get("/api/actors?ids=" + (actor.getId() + 1000) + "," + actor.getId()))
+                .andExpect(jsonPath("$.items[0].name").value(actor.getName()))
+                .andExpect(jsonPath("$.missingIds[0]").value(actor.getId() + 1000));
+    }
+
+    private long statementsFor(String url) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
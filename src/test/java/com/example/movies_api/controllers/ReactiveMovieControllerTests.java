@@ -0,0 +1,126 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.services.ActorService;
+import com.example.movies_api.services.GenreService;
+import com.example.movies_api.services.MovieImportService;
+import com.example.movies_api.services.MovieService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/reactive-movie-controller-tests.db")
+@AutoConfigureMockMvc
+class ReactiveMovieControllerTests {
+
+    // More than one page of the v2 stream.
+    private static final int MOVIES = 205;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Autowired
+    private MovieImportService movieImportService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Test
+    void servesTheSameMoviesAsTheBlockingEndpoints() throws Exception {
+        String suffix = Long.toString(System.nanoTime());
+        Genre genre = genreService.createGenre(new Genre("Western " + suffix));
+        Actor actor = actorService.createActor(new Actor("Rider " + suffix, LocalDate.of(1930, 5, 26)));
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < MOVIES; i++) {
+            ndjson.append("{\"title\":\"Trail ").append(i).append(' ').append(suffix)
+                    .append("\",\"releaseYear\":1956,\"duration\":119,\"genres\":[\"").append(genre.getName())
+                    .append("\"],\"actors\":[\"").append(actor.getName()).append("\"]}\n");
+        }
+        movieImportService.importNdjson(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+
+        String filter = "?genre=" + genre.getId();
+        List<JsonNode> streamed = new ArrayList<>();
+        for (String line : dispatch(get("/api/v2/movies" + filter).accept(MediaType.APPLICATION_NDJSON))
+                .getResponse().getContentAsString().split("\n")) {
+            streamed.add(objectMapper.readTree(line));
+        }
+        assertThat(streamed).hasSize(MOVIES);
+        assertThat(streamed).allSatisfy(movie -> {
+            assertThat(movie.at("/genres/0/name").asText()).isEqualTo(genre.getName());
+            assertThat(movie.at("/actors/0/birthDate").asText()).isEqualTo("1930-05-26");
+        });
+        assertThat(streamed).extracting(movie -> movie.get("id").asLong()).isSorted();
+
+        MvcResult blocking = mockMvc.perform(get("/api/movies" + filter + "&size=50&after=")).andReturn();
+        MvcResult reactive = dispatch(get("/api/v2/movies" + filter + "&size=50"));
+        assertThat(reactive.getResponse().getStatus()).isEqualTo(200);
+        assertThat(reactive.getResponse().getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT);
+        assertThat(objectMapper.readTree(reactive.getResponse().getContentAsString()))
+                .isEqualTo(objectMapper.readTree(blocking.getResponse().getContentAsString()));
+        assertThat(reactive.getResponse().getHeader(CursorPages.NEXT_CURSOR_HEADER))
+                .isEqualTo(blocking.getResponse().getHeader(CursorPages.NEXT_CURSOR_HEADER));
+
+        long id = streamed.get(MOVIES - 1).get("id").asLong();
+        MvcResult movie = dispatch(get("/api/v2/movies/" + id));
+        assertThat(objectMapper.readTree(movie.getResponse().getContentAsString())).isEqualTo(streamed.get(MOVIES - 1));
+
+        assertThat(dispatch(get("/api/v2/movies/" + (id + 1_000_000))).getResponse().getStatus()).isEqualTo(404);
+        assertThat(dispatch(get("/api/v2/movies?genre=-1").accept(MediaType.APPLICATION_NDJSON))
+                .getResponse().getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void answersUnknownYearsWithNotFoundInEveryPagingMode() throws Exception {
+        // No test creates movies from year 1.
+        assertThat(mockMvc.perform(get("/api/movies?year=1&size=10")).andReturn().getResponse().getStatus()).isEqualTo(404);
+        assertThat(mockMvc.perform(get("/api/movies?year=1&after=")).andReturn().getResponse().getStatus()).isEqualTo(404);
+        assertThat(mockMvc.perform(get("/api/movies?year=1&after=&view=summary")).andReturn().getResponse().getStatus())
+                .isEqualTo(404);
+        assertThat(dispatch(get("/api/v2/movies?year=1")).getResponse().getStatus()).isEqualTo(404);
+
+        // Past the last movie of a known year the page is just empty.
+        Movie last = movieService.createMovie(new Movie("Cinematograph " + System.nanoTime(), 1895, 1), List.of(), List.of());
+        String after = PageCursor.afterId(last.getId()).encode();
+        MvcResult end = mockMvc.perform(get("/api/movies?year=1895&after=" + after)).andReturn();
+        assertThat(end.getResponse().getStatus()).isEqualTo(200);
+        assertThat(objectMapper.readTree(end.getResponse().getContentAsString())).isEmpty();
+        assertThat(dispatch(get("/api/v2/movies?year=1895&after=" + after)).getResponse().getStatus()).isEqualTo(200);
+    }
+
+    private MvcResult dispatch(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        started.getAsyncResult();
+        return mockMvc.perform(asyncDispatch(started)).andReturn();
+    }
+}
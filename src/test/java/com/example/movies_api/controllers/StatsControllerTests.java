@@ -0,0 +1,106 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.services.CatalogStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/stats-tests.db")
+@AutoConfigureMockMvc
+class StatsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogStats catalogStats;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writesUpdateStatsAndInvalidateTheCheckpointUntilItIsWritten() throws Exception {
+        JsonNode before = read("/api/stats");
+        JsonNode yearBefore = read("/api/stats/years/1888");
+        long genreId = create("/api/genres", "{\"name\":\"Stats Genre " + System.nanoTime() + "\"}");
+        long first = create("/api/movies?genreIds=" + genreId, "{\"title\":\"First\",\"releaseYear\":1888,\"duration\":100}");
+        create("/api/movies?genreIds=" + genreId, "{\"title\":\"Second\",\"releaseYear\":1888,\"duration\":140}");
+
+        assertThat(checkpointValid()).isFalse();
+        JsonNode genre = read("/api/stats/genres/" + genreId);
+        assertThat(genre.get("movies").asLong()).isEqualTo(2);
+        assertThat(genre.get("averageDuration").asDouble()).isEqualTo(120.0);
+
+        mockMvc.perform(delete("/api/movies/" + first + "?force=true")).andExpect(status().isNoContent());
+        JsonNode after = read("/api/stats");
+        assertThat(after.get("movies").asLong()).isEqualTo(before.get("movies").asLong() + 1);
+        assertThat(after.get("genres").asLong()).isEqualTo(before.get("genres").asLong() + 1);
+        assertThat(read("/api/stats/years/1888").get("movies").asLong()).isEqualTo(yearBefore.get("movies").asLong() + 1);
+        genre = read("/api/stats/genres/" + genreId);
+        assertThat(genre.get("movies").asLong()).isEqualTo(1);
+        assertThat(genre.get("averageDuration").asDouble()).isEqualTo(140.0);
+
+        catalogStats.checkpoint();
+        assertThat(checkpointValid()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT movies FROM stats_checkpoint", Long.class))
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movie", Long.class));
+    }
+
+    @Test
+    void updatesMoveAMovieBetweenYearsAndReplaceItsDuration() throws Exception {
+        String genreName = "Patched Genre " + System.nanoTime();
+        long genreId = create("/api/genres", "{\"name\":\"" + genreName + "\"}");
+        long movie = create("/api/movies?genreIds=" + genreId, "{\"title\":\"Patched\",\"releaseYear\":1877,\"duration\":60}");
+        JsonNode before = read("/api/stats");
+        long oldYear = read("/api/stats/years/1877").get("movies").asLong();
+        long newYear = read("/api/stats/years/1879").get("movies").asLong();
+
+        mockMvc.perform(patch("/api/movies/" + movie).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Patched\",\"releaseYear\":1879,\"duration\":180,"
+                                + "\"genreNames\":[\"" + genreName + "\"]}"))
+                .andExpect(status().isOk());
+
+        assertThat(read("/api/stats/years/1877").get("movies").asLong()).isEqualTo(oldYear - 1);
+        assertThat(read("/api/stats/years/1879").get("movies").asLong()).isEqualTo(newYear + 1);
+        JsonNode after = read("/api/stats");
+        assertThat(after.get("movies").asLong()).isEqualTo(before.get("movies").asLong());
+        assertThat(after.get("averageDuration").asDouble() * after.get("movies").asLong())
+                .isCloseTo(before.get("averageDuration").asDouble() * before.get("movies").asLong() + 120, within(0.001));
+        JsonNode genre = read("/api/stats/genres/" + genreId);
+        assertThat(genre.get("movies").asLong()).isEqualTo(1);
+        assertThat(genre.get("averageDuration").asDouble()).isEqualTo(180.0);
+    }
+
+    private long create(String uri, String body) throws Exception {
+        String response = mockMvc.perform(post(uri).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private JsonNode read(String uri) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private boolean checkpointValid() {
+        return jdbcTemplate.queryForObject("SELECT valid FROM stats_checkpoint", Integer.class) == 1;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.movies_api.controllers;
+
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.services.ActorService;
+import com.example.movies_api.services.GenreService;
+import com.example.movies_api.services.MovieImportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/streaming-listing-tests.db")
+@AutoConfigureMockMvc
+class StreamingListingTests {
+
+    // More than two of the chunks EntityStreamer reads and writes at a time (100 rows).
+    private static final int MOVIES = 250;
+
+    private static final Map<String, String> LISTINGS = Map.of(
+            "/api/movies", "SELECT id FROM movie ORDER BY id",
+            "/api/actors", "SELECT id FROM actor ORDER BY id",
+            "/api/genres", "SELECT id FROM genre ORDER BY id");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Autowired
+    private MovieImportService movieImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+    private Genre genre;
+    private Actor actor;
+
+    @BeforeEach
+    void importMovies() throws Exception {
+        suffix = Long.toString(System.nanoTime());
+        genre = genreService.createGenre(new Genre("Streamed " + suffix));
+        actor = actorService.createActor(new Actor("Streamer " + suffix, LocalDate.of(1940, 2, 3)));
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < MOVIES; i++) {
+            ndjson.append("{\"title\":\"Streamed ").append(i).append(' ').append(suffix)
+                    .append("\",\"releaseYear\":1970,\"duration\":90,\"genres\":[\"").append(genre.getName())
+                    .append("\"],\"actors\":[\"").append(actor.getName()).append("\"]}\n");
+        }
+        movieImportService.importNdjson(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void streamsUnpagedListingsAsJsonArrays() throws Exception {
+        for (Map.Entry<String, String> listing : LISTINGS.entrySet()) {
+            MvcResult result = dispatch(get(listing.getKey()));
+            assertThat(result.getResponse().getContentType()).as(listing.getKey()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+
+            JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+            assertThat(body.isArray()).as(listing.getKey()).isTrue();
+            assertThat(ids(body)).as(listing.getKey()).containsExactlyElementsOf(expectedIds(listing.getValue()));
+        }
+    }
+
+    @Test
+    void streamsNdjsonOneObjectPerLine() throws Exception {
+        for (Map.Entry<String, String> listing : LISTINGS.entrySet()) {
+            MvcResult result = dispatch(get(listing.getKey()).accept(MediaType.APPLICATION_NDJSON));
+            assertThat(result.getResponse().getContentType()).as(listing.getKey()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+
+            List<JsonNode> lines = new ArrayList<>();
+            for (String line : result.getResponse().getContentAsString().split("\n")) {
+                JsonNode node = objectMapper.readTree(line);
+                assertThat(node.isObject()).as(line).isTrue();
+                lines.add(node);
+            }
+            assertThat(ids(lines)).as(listing.getKey()).containsExactlyElementsOf(expectedIds(listing.getValue()));
+        }
+    }
+
+    @Test
+    void streamsMoviesPastTheFirstChunkWithTheirAssociations() throws Exception {
+        JsonNode movies = objectMapper.readTree(dispatch(get("/api/movies")).getResponse().getContentAsString());
+        List<JsonNode> imported = new ArrayList<>();
+        movies.forEach(movie -> {
+            if (movie.at("/genres/0/id").asLong() == genre.getId()) {
+                imported.add(movie);
+            }
+        });
+
+        // Associations load per chunk, so the rows of later chunks must carry them too.
+        assertThat(imported).hasSize(MOVIES);
+        assertThat(imported).allSatisfy(movie -> {
+            assertThat(movie.at("/genres/0/name").asText()).isEqualTo(genre.getName());
+            assertThat(movie.at("/actors/0/name").asText()).isEqualTo(actor.getName());
+        });
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < MOVIES; i++) {
+            titles.add("Streamed " + i + " " + suffix);
+        }
+        assertThat(imported).extracting(movie -> movie.get("title").asText()).containsExactlyElementsOf(titles);
+    }
+
+    private List<Long> expectedIds(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class);
+    }
+
+    private static List<Long> ids(Iterable<JsonNode> items) {
+        List<Long> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private MvcResult dispatch(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        started.getAsyncResult();
+        return mockMvc.perform(asyncDispatch(started)).andReturn();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.movies_api.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records the SQL Hibernate generates for the repository lookups and checks with
+ * EXPLAIN QUERY PLAN that SQLite answers every statement from an index.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/repository-query-plan-tests.db",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.movies_api.repositories.RepositoryQueryPlanTests$RecordingInspector"
+})
+class RepositoryQueryPlanTests {
+
+    private static final PageRequest PAGE = PageRequest.of(1, 20);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    @Test
+    void movieFiltersUseTheirIndexes() {
+        assertIndexed(() -> movieRepository.findByReleaseYear(1999, PAGE), "idx_movie_release_year");
+        assertIndexed(() -> movieRepository.findByGenres_Id(1L, PAGE), "idx_movie_genre_genre");
+        assertIndexed(() -> movieRepository.findByActors_Id(1L, PAGE), "idx_movie_actor_actor");
+        assertIndexed(() -> movieRepository.findByGenres_IdAndIdGreaterThanOrderByIdAsc(1L, 0L, PAGE), "idx_movie_genre_genre");
+        assertIndexed(() -> movieRepository.findByActors_IdAndIdGreaterThanOrderByIdAsc(1L, 0L, PAGE), "idx_movie_actor_actor");
+        assertIndexed(() -> movieRepository.findByReleaseYearAndIdGreaterThanOrderByIdAsc(1999, 0L, PAGE), "idx_movie_release_year");
+        assertIndexed(() -> movieRepository.findAfterReleaseYear(1999, 0L, PAGE), "idx_movie_release_year");
+        assertIndexed(() -> movieRepository.existsByGenres_Id(1L), "idx_movie_genre_genre");
+        assertIndexed(() -> movieRepository.existsByActors_Id(1L), "idx_movie_actor_actor");
+    }
+
+    @Test
+    void modifiedSinceListingsUseTheirIndexes() {
+        assertIndexed(() -> movieRepository.findAfterUpdatedAt(0L, 0L, PAGE), "idx_movie_updated_at");
+        assertIndexed(() -> actorRepository.findAfterUpdatedAt(0L, 0L, PAGE), "idx_actor_updated_at");
+        assertIndexed(() -> genreRepository.findAfterUpdatedAt(0L, 0L, PAGE), "idx_genre_updated_at");
+    }
+
+    @Test
+    void nameLookupsUseTheirIndexes() {
+        assertIndexed(() -> genreRepository.findByName("Drama"), "idx_genre_name");
+        assertIndexed(() -> genreRepository.findByNameIn(List.of("Drama", "Comedy")), "idx_genre_name");
+        assertIndexed(() -> actorRepository.findByName("Alice Johnson"), "idx_actor_name");
+        assertIndexed(() -> actorRepository.findByNameIn(List.of("Alice Johnson", "Bob Smith")), "idx_actor_name");
+    }
+
+    private void assertIndexed(Runnable lookup, String index) {
+        RecordingInspector.STATEMENTS.clear();
+        lookup.run();
+        assertThat(RecordingInspector.STATEMENTS).isNotEmpty();
+
+        List<String> steps = new ArrayList<>();
+        for (String sql : RecordingInspector.STATEMENTS) {
+            Object[] arguments = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+            Arrays.fill(arguments, 1);
+            List<String> plan = jdbcTemplate.queryForList("EXPLAIN QUERY PLAN " + sql, arguments).stream()
+                    .map(row -> (String) row.get("detail")).toList();
+            assertThat(plan).as(sql).noneMatch(step -> step.startsWith("SCAN "));
+            steps.addAll(plan);
+        }
+        assertThat(steps).as(RecordingInspector.STATEMENTS.toString()).anyMatch(step -> step.contains(index));
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.movies_api.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActorGraphTests {
+
+    // Outside a transaction changes apply immediately, so the graph can be built without a database.
+    private final ActorGraph graph = new ActorGraph(null);
+
+    @Test
+    void ranksCostarsAndFindsShortestPaths() {
+        graph.castChanged(1, List.of(1L, 2L, 3L));
+        graph.castChanged(2, List.of(1L, 2L));
+        graph.castChanged(3, List.of(3L, 4L));
+        graph.castChanged(4, List.of(4L, 5L));
+
+        assertThat(graph.costars(1, 10)).extracting(ActorGraph.Costar::actorId).containsExactly(2, 3);
+        assertThat(graph.costars(1, 10)).extracting(ActorGraph.Costar::sharedMovies).containsExactly(2, 1);
+        assertThat(graph.collaborationPath(1, 5, 6)).containsExactly(1, 1, 3, 3, 4, 4, 5);
+        assertThat(graph.collaborationPath(1, 5, 2)).isNull();
+
+        graph.castChanged(2, List.of(1L, 5L));
+        assertThat(graph.collaborationPath(1, 5, 6)).containsExactly(1, 2, 5);
+
+        graph.actorRemoved(3);
+        graph.castChanged(2, List.of());
+        assertThat(graph.costars(1, 10)).extracting(ActorGraph.Costar::actorId).containsExactly(2);
+        assertThat(graph.collaborationPath(1, 5, 6)).isNull();
+    }
+
+    @Test
+    void compactionKeepsTheGraphIntact() {
+        for (int movie = 1; movie <= 10_000; movie++) {
+            graph.castChanged(movie, List.of((long) movie, movie + 1L));
+        }
+
+        assertThat(graph.costars(500, 10)).extracting(ActorGraph.Costar::actorId).containsExactly(499, 501);
+        assertThat(graph.collaborationPath(1, 10_001, 10_000)).hasSize(2 * 10_000 + 1);
+    }
+}
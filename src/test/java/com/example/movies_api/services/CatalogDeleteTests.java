@@ -0,0 +1,117 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.repositories.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/delete-tests.db")
+class CatalogDeleteTests {
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void forceDeletingAnActorUnlinksItAndBumpsItsMovies() {
+        String suffix = Long.toString(System.nanoTime());
+        Actor actor = actorService.createActor(new Actor("Linked " + suffix, LocalDate.of(1950, 1, 1)));
+        Actor other = actorService.createActor(new Actor("Other " + suffix, LocalDate.of(1950, 1, 1)));
+        Movie linked = movieService.createMovie(new Movie("Cast " + suffix, 1990, 100), List.of(),
+                List.of(actor.getId(), other.getId()));
+        Movie unrelated = movieService.createMovie(new Movie("Unrelated " + suffix, 1990, 100), List.of(),
+                List.of(other.getId()));
+        long linkedVersion = version(linked);
+        long unrelatedVersion = version(unrelated);
+
+        assertThatThrownBy(() -> actorService.deleteActor(actor.getId(), false)).isInstanceOf(IllegalStateException.class);
+        assertThat(actorService.getActorById(actor.getId())).isPresent();
+        assertThat(count("movie_actor", "actor_id", actor.getId())).isEqualTo(1);
+        assertThat(version(linked)).isEqualTo(linkedVersion);
+
+        actorService.deleteActor(actor.getId(), true);
+
+        assertThat(actorService.getActorById(actor.getId())).isEmpty();
+        assertThat(count("movie_actor", "actor_id", actor.getId())).isZero();
+        assertThat(count("movie_actor", "movie_id", linked.getId())).isEqualTo(1);
+        assertThat(version(linked)).isEqualTo(linkedVersion + 1);
+        assertThat(version(unrelated)).isEqualTo(unrelatedVersion);
+    }
+
+    @Test
+    void forceDeletingAGenreUnlinksItAndBumpsItsMovies() {
+        String suffix = Long.toString(System.nanoTime());
+        Genre genre = genreService.createGenre(new Genre("Linked " + suffix));
+        Genre other = genreService.createGenre(new Genre("Other " + suffix));
+        Movie first = movieService.createMovie(new Movie("First " + suffix, 1990, 100), List.of(genre.getId()), List.of());
+        Movie second = movieService.createMovie(new Movie("Second " + suffix, 1990, 100),
+                List.of(genre.getId(), other.getId()), List.of());
+        long firstVersion = version(first);
+        long secondVersion = version(second);
+
+        assertThatThrownBy(() -> genreService.deleteGenre(genre.getId(), false)).isInstanceOf(IllegalStateException.class);
+        assertThat(count("movie_genre", "genre_id", genre.getId())).isEqualTo(2);
+
+        genreService.deleteGenre(genre.getId(), true);
+
+        assertThat(count("genre", "id", genre.getId())).isZero();
+        assertThat(count("movie_genre", "genre_id", genre.getId())).isZero();
+        assertThat(count("movie_genre", "genre_id", other.getId())).isEqualTo(1);
+        assertThat(version(first)).isEqualTo(firstVersion + 1);
+        assertThat(version(second)).isEqualTo(secondVersion + 1);
+    }
+
+    @Test
+    void forceDeletingAMovieRemovesItsLinks() {
+        String suffix = Long.toString(System.nanoTime());
+        Genre genre = genreService.createGenre(new Genre("Kept " + suffix));
+        Actor actor = actorService.createActor(new Actor("Kept " + suffix, LocalDate.of(1950, 1, 1)));
+        Movie movie = movieService.createMovie(new Movie("Doomed " + suffix, 1990, 100), List.of(genre.getId()),
+                List.of(actor.getId()));
+        Movie bare = movieService.createMovie(new Movie("Bare " + suffix, 1990, 100), List.of(), List.of());
+
+        assertThatThrownBy(() -> movieService.deleteMovie(movie.getId(), false))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(movieService.getMovieById(movie.getId())).isPresent();
+
+        movieService.deleteMovie(movie.getId(), true);
+        movieService.deleteMovie(bare.getId(), false);
+
+        assertThat(movieService.getMovieById(movie.getId())).isEmpty();
+        assertThat(movieService.getMovieById(bare.getId())).isEmpty();
+        assertThat(count("movie_genre", "movie_id", movie.getId())).isZero();
+        assertThat(count("movie_actor", "movie_id", movie.getId())).isZero();
+        assertThat(actorService.getActorById(actor.getId())).isPresent();
+        assertThat(count("genre", "id", genre.getId())).isEqualTo(1);
+    }
+
+    private long version(Movie movie) {
+        return movieRepository.findVersionById(movie.getId()).orElseThrow();
+    }
+
+    private int count(String table, String column, long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.MovieSummaryDTO;
+import com.example.movies_api.dto.MovieUpdateDTO;
+import com.example.movies_api.dto.PageCursor;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.repositories.MovieRepository;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/catalog-replica-tests.db",
+        "movies.catalog.in-memory=true"
+})
+@AutoConfigureMockMvc
+class CatalogReplicaTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogReplica catalogReplica;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Test
+    void servesReadsFromTheSnapshotInStepWithWrites() throws InterruptedException {
+        while (catalogReplica.snapshot() == null) {
+            Thread.sleep(20);
+        }
+        String suffix = Long.toString(System.nanoTime());
+        Genre genre = genreService.createGenre(new Genre("Noir " + suffix));
+        Actor lead = actorService.createActor(new Actor("Lead " + suffix, LocalDate.of(1960, 5, 17)));
+        Actor support = actorService.createActor(new Actor("Support " + suffix, LocalDate.of(1970, 1, 1)));
+        Movie first = movieService.createMovie(new Movie("First " + suffix, 1948, 95), List.of(genre.getId()),
+                List.of(lead.getId()));
+        Movie second = movieService.createMovie(new Movie("Second " + suffix, 1950, 101), List.of(genre.getId()),
+                List.of(lead.getId(), support.getId()));
+        long published = catalogReplica.snapshot().version();
+
+        Movie loaded = movieService.getMovieById(second.getId()).orElseThrow();
+        assertThat(loaded.getTitle()).isEqualTo(second.getTitle());
+        assertThat(loaded.getGenres()).extracting(Genre::getName).containsExactly(genre.getName());
+        assertThat(loaded.getActors()).extracting(Actor::getName).containsExactly(lead.getName(), support.getName());
+        assertThat(actorService.getActorById(lead.getId()).orElseThrow().getBirthDate()).isEqualTo(LocalDate.of(1960, 5, 17));
+        assertThat(ids(movieService.getMoviesByGenreAfter(genre.getId(), 0, 10).orElseThrow().getContent()))
+                .containsExactly(first.getId(), second.getId());
+        assertThat(ids(movieService.getMoviesByActorAfter(support.getId(), 0, 10).orElseThrow().getContent()))
+                .containsExactly(second.getId());
+        assertMatchesDatabase();
+
+        MovieUpdateDTO update = new MovieUpdateDTO();
+        update.setTitle("First, Restored " + suffix);
+        update.setReleaseYear(1949);
+        update.setDuration(97);
+        update.setGenreNames(List.of());
+        update.setActorNames(List.of(support.getName()));
+        movieService.updateMovie(first.getId(), update);
+        assertThat(catalogReplica.snapshot().version()).isGreaterThan(published);
+        assertThat(movieService.getMovieById(first.getId()).orElseThrow().getTitle()).isEqualTo(update.getTitle());
+        assertThat(movieService.getMovieVersion(first.getId())).isEqualTo(movieRepository.findVersionById(first.getId()));
+        assertThat(ids(movieService.getMoviesByGenreAfter(genre.getId(), 0, 10).orElseThrow().getContent()))
+                .containsExactly(second.getId());
+        assertThat(ids(movieService.getMoviesByActorAfter(support.getId(), 0, 10).orElseThrow().getContent()))
+                .containsExactly(first.getId(), second.getId());
+
+        actorService.deleteActor(lead.getId(), true);
+        genreService.deleteGenre(genre.getId(), true);
+        assertThat(actorService.getActorById(lead.getId())).isEmpty();
+        assertThat(movieService.getMoviesByGenreAfter(genre.getId(), 0, 10)).isEmpty();
+        Movie unlinked = movieService.getMovieById(second.getId()).orElseThrow();
+        assertThat(unlinked.getGenres()).isEmpty();
+        assertThat(unlinked.getActors()).extracting(Actor::getId).containsExactly(support.getId());
+        assertThat(movieService.getMovieVersion(second.getId())).isEqualTo(movieRepository.findVersionById(second.getId()));
+
+        movieService.deleteMovie(first.getId(), true);
+        assertThat(movieService.getMovieById(first.getId())).isEmpty();
+        assertMatchesDatabase();
+    }
+
+    @Test
+    void servesOffsetPagesOfSummariesFromTheSnapshot() throws Exception {
+        while (catalogReplica.snapshot() == null) {
+            Thread.sleep(20);
+        }
+        String suffix = Long.toString(System.nanoTime());
+        Genre genre = genreService.createGenre(new Genre("Serial " + suffix));
+        Actor actor = actorService.createActor(new Actor("Hero " + suffix, LocalDate.of(1910, 2, 3)));
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(movieService.createMovie(new Movie("Chapter " + i + " " + suffix, 1936, 20), List.of(genre.getId()),
+                    List.of(actor.getId())).getId());
+        }
+
+        assertThat(summaryIds("/api/movies?view=summary&page=1&size=2&genre=" + genre.getId()))
+                .isEqualTo(created.subList(2, 4));
+        assertThat(summaryIds("/api/movies?view=summary&page=2&size=2&actor=" + actor.getId()))
+                .isEqualTo(created.subList(4, 5));
+        Pageable secondPage = PageRequest.of(1, 2);
+        assertThat(summaryIds("/api/movies?view=summary&page=1&size=2&year=1936"))
+                .isEqualTo(movieRepository.findSummariesByReleaseYearAfter(1936, 0, secondPage).getContent().stream()
+                        .map(MovieSummaryDTO::getId).toList());
+        assertThat(summaryIds("/api/movies?view=summary&page=1&size=2"))
+                .isEqualTo(movieRepository.findSummariesAfter(0, secondPage).getContent().stream()
+                        .map(MovieSummaryDTO::getId).toList());
+    }
+
+    private List<Long> summaryIds(String uri) throws Exception {
+        JsonNode page = objectMapper.readTree(mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        List<Long> ids = new ArrayList<>();
+        page.forEach(movie -> ids.add(movie.get("id").asLong()));
+        return ids;
+    }
+
+    // Compares the snapshot's listings with the same queries run against SQLite.
+    private void assertMatchesDatabase() {
+        Pageable limit = PageRequest.of(0, 50);
+        assertThat(ids(movieService.getMoviesAfter(PageCursor.first(false), 50).getContent()))
+                .isEqualTo(ids(movieRepository.findByIdGreaterThanOrderByIdAsc(0L, limit).getContent()));
+        assertThat(ids(movieService.getMoviesAfter(PageCursor.first(true), 50).getContent()))
+                .isEqualTo(ids(movieRepository.findAfterReleaseYear(Integer.MIN_VALUE, 0L, limit).getContent()));
+        assertThat(movieService.getMovieSummariesByReleaseYear(1950, 0, limit).orElseThrow().getContent())
+                .extracting(MovieSummaryDTO::getId)
+                .isEqualTo(movieRepository.findSummariesByReleaseYearAfter(1950, 0, limit).getContent().stream()
+                        .map(MovieSummaryDTO::getId).toList());
+    }
+
+    private static List<Long> ids(List<Movie> movies) {
+        return movies.stream().map(Movie::getId).toList();
+    }
+}
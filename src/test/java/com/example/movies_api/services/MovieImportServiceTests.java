@@ -0,0 +1,113 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.BulkImportResultDTO;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Movie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/import-tests.db")
+class MovieImportServiceTests {
+
+    @Autowired
+    private MovieImportService importService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsQuotedCsvFieldsAndReportsFailedLines() throws IOException {
+        // A word no earlier run has used, so searches only find this run's rows.
+        String word = "Zq" + Long.toString(System.nanoTime(), 36);
+        Actor actor = actorService.createActor(new Actor("Lead " + word, LocalDate.of(1960, 1, 1)));
+        String csv = String.join("\n",
+                "title,releaseYear,duration,genres,actors",
+                "\"Say \"\"Hello\"\", " + word + "\",1999,120,Drama " + word + "|Comedy " + word + ",Lead " + word,
+                "Plain " + word + ",2001,90",
+                "Missing " + word + ",2002,95,,Nobody " + word,
+                "Broken " + word + ",soon,95",
+                ",2003,95",
+                "");
+
+        BulkImportResultDTO result = importService.importCsv(stream(csv));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(BulkImportResultDTO.RowError::getLine).containsExactlyInAnyOrder(4L, 5L, 6L);
+        assertThat(result.getErrors()).extracting(BulkImportResultDTO.RowError::getMessage).containsExactlyInAnyOrder(
+                "Actor with name Nobody " + word + " not found",
+                "Release year and duration must be numbers",
+                "Title cannot be empty");
+
+        List<Movie> found = movieService.searchMoviesByTitle(word, PageRequest.of(0, 10)).orElseThrow().getContent();
+        assertThat(found).extracting(Movie::getTitle)
+                .containsExactlyInAnyOrder("Say \"Hello\", " + word, "Plain " + word);
+        long quoted = found.stream().filter(movie -> movie.getTitle().startsWith("Say")).findFirst().orElseThrow().getId();
+        assertThat(jdbcTemplate.queryForList("SELECT g.name FROM movie_genre mg JOIN genre g ON g.id = mg.genre_id "
+                + "WHERE mg.movie_id = ?", String.class, quoted))
+                .containsExactlyInAnyOrder("Drama " + word, "Comedy " + word);
+        assertThat(jdbcTemplate.queryForList("SELECT actor_id FROM movie_actor WHERE movie_id = ?", Long.class, quoted))
+                .containsExactly(actor.getId());
+    }
+
+    @Test
+    void importsNdjsonAndReenablesTheTitleIndexTrigger() throws IOException {
+        String word = "Zq" + Long.toString(System.nanoTime(), 36);
+        String ndjson = String.join("\n",
+                "{\"title\":\"Imported " + word + "\",\"releaseYear\":2010,\"duration\":100,\"genres\":[\"Noir " + word + "\"]}",
+                "{\"title\":",
+                "[]",
+                "{\"title\":\"No Year " + word + "\",\"duration\":100}");
+
+        BulkImportResultDTO result = importService.importNdjson(stream(ndjson));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(BulkImportResultDTO.RowError::getLine).containsExactly(2L, 3L, 4L);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Invalid JSON: ");
+        assertThat(result.getErrors().get(2).getMessage()).isEqualTo("Release year cannot be null");
+
+        // The import switches the FTS insert trigger off while it writes; rows created afterwards must still be indexed.
+        assertThat(jdbcTemplate.queryForObject("SELECT active FROM bulk_import", Integer.class)).isZero();
+        movieService.createMovie(new Movie("Created " + word, 2011, 100), List.of(), List.of());
+        assertThat(movieService.searchMoviesByTitle(word, PageRequest.of(0, 10)).orElseThrow().getContent())
+                .extracting(Movie::getTitle)
+                .containsExactlyInAnyOrder("Imported " + word, "Created " + word);
+    }
+
+    @Test
+    void capsTheReportedErrors() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        int lines = MovieImportService.MAX_REPORTED_ERRORS + 5;
+        for (int i = 0; i < lines; i++) {
+            ndjson.append("{\"title\":\"\"}\n");
+        }
+
+        BulkImportResultDTO result = importService.importNdjson(stream(ndjson.toString()));
+
+        assertThat(result.getImported()).isZero();
+        assertThat(result.getFailed()).isEqualTo(lines);
+        assertThat(result.getErrors()).hasSize(MovieImportService.MAX_REPORTED_ERRORS);
+        assertThat(result.getErrors().get(0).getLine()).isEqualTo(1);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.MovieQueryDTO;
+import com.example.movies_api.dto.MovieSummaryDTO;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import com.example.movies_api.repositories.ActorRepository;
+import com.example.movies_api.repositories.GenreRepository;
+import com.example.movies_api.repositories.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/movie-query-tests.db"
+})
+class MovieQueryPlanTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MovieQueryService movieQueryService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    @Test
+    void everyFilterCombinationIsAnsweredFromIndexes() {
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        int combinations = 0;
+        for (int mask = 1; mask < 1 << 6; mask++) {
+            for (String match : List.of("all", "any")) {
+                MovieQueryDTO filter = filter(mask, match);
+                MovieQuery query = MovieQuery.of(filter);
+                String sql = query.sql("m.*", PageRequest.of(1, 20));
+
+                List<String> plan = namedJdbcTemplate.queryForList("EXPLAIN QUERY PLAN " + sql, query.parameters())
+                        .stream().map(row -> (String) row.get("detail")).toList();
+                // FTS5 reports its index lookups as a virtual table scan; any other SCAN reads a whole table.
+                assertThat(plan).as(sql).noneMatch(step -> step.startsWith("SCAN ") && !step.contains("VIRTUAL TABLE"));
+                combinations++;
+            }
+        }
+        assertThat(combinations).isEqualTo(126);
+    }
+
+    @Test
+    void combinesFiltersWithAllAndAny() {
+        movieRepository.deleteAll();
+        genreRepository.deleteAll();
+        actorRepository.deleteAll();
+        Genre drama = genreRepository.save(new Genre("Drama"));
+        Genre comedy = genreRepository.save(new Genre("Comedy"));
+        Actor actor = actorRepository.save(new Actor("Alice Johnson", LocalDate.of(1985, 6, 14)));
+        Movie both = movie("Drama Comedy", 1999, Set.of(drama, comedy), Set.of(actor));
+        Movie dramaOnly = movie("Drama Only", 1999, Set.of(drama), Set.of());
+        Movie comedyOnly = movie("Comedy Only", 2005, Set.of(comedy), Set.of(actor));
+
+        MovieQueryDTO allGenres = new MovieQueryDTO();
+        allGenres.setGenres(List.of(drama.getId(), comedy.getId()));
+        allGenres.setGenreMatch("all");
+        assertThat(ids(allGenres)).containsExactly(both.getId());
+
+        MovieQueryDTO dramaIn1999WithActor = new MovieQueryDTO();
+        dramaIn1999WithActor.setGenres(List.of(drama.getId()));
+        dramaIn1999WithActor.setActors(List.of(actor.getId()));
+        dramaIn1999WithActor.setYearFrom(1999);
+        dramaIn1999WithActor.setYearTo(1999);
+        assertThat(ids(dramaIn1999WithActor)).containsExactly(both.getId());
+
+        MovieQueryDTO onlyOrLater = new MovieQueryDTO();
+        onlyOrLater.setTitle("only");
+        onlyOrLater.setYearFrom(2000);
+        onlyOrLater.setMatch("any");
+        onlyOrLater.setSort("-releaseYear");
+        assertThat(ids(onlyOrLater)).containsExactly(comedyOnly.getId(), dramaOnly.getId());
+    }
+
+    private List<Long> ids(MovieQueryDTO filter) {
+        return movieQueryService.findMovieSummaries(filter, PageRequest.of(0, 20)).stream()
+                .map(MovieSummaryDTO::getId).toList();
+    }
+
+    private Movie movie(String title, int releaseYear, Set<Genre> genres, Set<Actor> actors) {
+        Movie movie = new Movie(title, releaseYear, 100);
+        movie.setGenres(genres);
+        movie.setActors(actors);
+        return movieRepository.save(movie);
+    }
+
+    // Bits select genres, all genres, actors, a year range, a minimum duration and a title.
+    private static MovieQueryDTO filter(int mask, String match) {
+        MovieQueryDTO filter = new MovieQueryDTO();
+        filter.setMatch(match);
+        if ((mask & 1) != 0) {
+            filter.setGenres(List.of(1L, 2L));
+        }
+        if ((mask & 2) != 0) {
+            filter.setGenres(List.of(1L, 2L, 3L));
+            filter.setGenreMatch("all");
+        }
+        if ((mask & 4) != 0) {
+            filter.setActors(List.of(1L, 2L));
+        }
+        if ((mask & 8) != 0) {
+            filter.setYearFrom(1990);
+            filter.setYearTo(1999);
+        }
+        if ((mask & 16) != 0) {
+            filter.setMinDuration(120);
+        }
+        if ((mask & 32) != 0) {
+            filter.setTitle("matrix rel");
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.MovieUpdateDTO;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Genre;
+import com.example.movies_api.entities.Movie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/similarity-tests.db")
+class SimilarityIndexTests {
+
+    @Autowired
+    private SimilarityIndex similarityIndex;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Test
+    void ranksSharedActorsAboveSharedGenresAndFollowsWrites() throws InterruptedException {
+        while (!similarityIndex.isReady()) {
+            Thread.sleep(20);
+        }
+        String suffix = Long.toString(System.nanoTime());
+        long drama = genreService.createGenre(new Genre("Drama " + suffix)).getId();
+        long crime = genreService.createGenre(new Genre("Crime " + suffix)).getId();
+        Actor lead = actorService.createActor(new Actor("Lead " + suffix, LocalDate.of(1970, 1, 1)));
+
+        long original = create("Original", 2000, List.of(drama, crime), List.of(lead.getId()));
+        long sequel = create("Sequel", 2004, List.of(drama), List.of(lead.getId()));
+        long sameGenres = create("Same Genres", 2000, List.of(drama, crime), List.of());
+
+        assertThat(ids(movieService.getSimilarMovies(original, 10).orElseThrow())).containsExactly(sequel, sameGenres);
+
+        MovieUpdateDTO update = new MovieUpdateDTO();
+        update.setTitle("Sequel");
+        update.setReleaseYear(2004);
+        update.setDuration(100);
+        update.setGenreNames(List.of());
+        update.setActorNames(List.of());
+        movieService.updateMovie(sequel, update);
+        assertThat(ids(movieService.getSimilarMovies(original, 10).orElseThrow())).containsExactly(sameGenres);
+
+        movieService.deleteMovie(sameGenres, true);
+        assertThat(movieService.getSimilarMovies(original, 10).orElseThrow()).isEmpty();
+        assertThat(movieService.getSimilarMovies(sameGenres, 10)).isEmpty();
+    }
+
+    @Test
+    void idsOutsideTheIndexAreNotFound() {
+        assertThat(similarityIndex.similar(-1, 10)).isEmpty();
+        assertThat(similarityIndex.similar(Integer.MAX_VALUE, 10)).isEmpty();
+        assertThat(similarityIndex.similar(Integer.MAX_VALUE + 1L, 10)).isEmpty();
+        assertThat(similarityIndex.similar(Long.MIN_VALUE, 10)).isEmpty();
+    }
+
+    private long create(String title, int year, List<Long> genreIds, List<Long> actorIds) {
+        return movieService.createMovie(new Movie(title, year, 100), genreIds, actorIds).getId();
+    }
+
+    private static List<Long> ids(List<com.example.movies_api.dto.SimilarMovieDTO> movies) {
+        return movies.stream().map(com.example.movies_api.dto.SimilarMovieDTO::getId).toList();
+    }
+}
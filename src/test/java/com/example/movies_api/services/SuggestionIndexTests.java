@@ -0,0 +1,91 @@
+package com.example.movies_api.services;
+
+import com.example.movies_api.dto.SuggestionDTO;
+import com.example.movies_api.entities.Actor;
+import com.example.movies_api.entities.Movie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/suggestion-tests.db")
+class SuggestionIndexTests {
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Test
+    void suggestsWordPrefixesByPopularityAcrossRebuilds() throws InterruptedException {
+        while (!suggestionIndex.isReady()) {
+            Thread.sleep(20);
+        }
+        // A word no earlier run has used, so results only contain this run's rows.
+        String word = "Zq" + Long.toString(System.nanoTime(), 36);
+        Actor first = actorService.createActor(new Actor(word + " First", LocalDate.of(1970, 1, 1)));
+        Actor second = actorService.createActor(new Actor("Second " + word, LocalDate.of(1970, 1, 1)));
+        Movie small = movieService.createMovie(new Movie("The " + word + " Story", 2000, 100), List.of(), List.of(first.getId()));
+        Movie big = movieService.createMovie(new Movie(word + " Returns", 2001, 100), List.of(),
+                List.of(first.getId(), second.getId()));
+
+        String prefix = word.substring(0, word.length() - 1).toUpperCase();
+        assertThat(texts(suggestionIndex.suggest(prefix, 10, true, false)))
+                .containsExactly(big.getTitle(), small.getTitle());
+        assertThat(texts(suggestionIndex.suggest(prefix, 1, true, true))).containsExactly(big.getTitle());
+
+        suggestionIndex.rebuild();
+        assertThat(texts(suggestionIndex.suggest(prefix, 10, false, true)))
+                .containsExactly(first.getName(), second.getName());
+
+        movieService.deleteMovie(big.getId(), true);
+        Actor renamed = new Actor();
+        renamed.setName("Renamed Actor");
+        actorService.updateActor(first.getId(), renamed);
+        assertThat(texts(suggestionIndex.suggest(prefix, 10, true, true)))
+                .containsExactlyInAnyOrder(small.getTitle(), second.getName());
+    }
+
+    @Test
+    void suffixSortMatchesTheSuffixComparison() {
+        // Short words from a small alphabet in both cases, so texts share long prefixes and repeat.
+        Random random = new Random(42);
+        String[] texts = new String[2_000];
+        for (int i = 0; i < texts.length; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int length = random.nextInt(12); length > 0; length--) {
+                text.append("aAbB c".charAt(random.nextInt(6)));
+            }
+            texts[i] = text.toString();
+        }
+        int[] text = new int[texts.length];
+        int[] offset = new int[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            text[i] = i;
+            offset[i] = texts[i].isEmpty() ? 0 : random.nextInt(texts[i].length());
+        }
+
+        int[] order = new int[texts.length];
+        Arrays.setAll(order, i -> i);
+        new SuggestionIndex.SuffixSort(texts, text, offset).sort(order, 0, order.length, 0);
+
+        Integer[] expected = new Integer[texts.length];
+        Arrays.setAll(expected, i -> i);
+        Arrays.sort(expected, (a, b) -> SuggestionIndex.compareSuffixes(texts[a], offset[a], texts[b], offset[b]));
+        assertThat(order).containsExactly(Arrays.stream(expected).mapToInt(Integer::intValue).toArray());
+    }
+
+    private static List<String> texts(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getText).toList();
+    }
+}